@@ -0,0 +1,21 @@
+package vv.pms.allocation;
+
+import java.util.List;
+
+/**
+ * Published whenever a project's allocation changes: its professor is set or removed, or
+ * students join or leave its team. Carries the team as it now stands (no professor and no
+ * students once the allocation is gone), so other modules (e.g. the presentation calendar feeds
+ * and scheduling) can react without AllocationService depending on them or a lookup per event.
+ */
+public record AllocationChangedEvent(Long projectId, Long professorId, List<Long> studentIds) {
+
+    static AllocationChangedEvent of(ProjectAllocation allocation) {
+        return new AllocationChangedEvent(allocation.getProjectId(), allocation.getProfessorId(),
+                List.copyOf(allocation.getAssignedStudentIds()));
+    }
+
+    static AllocationChangedEvent removed(Long projectId) {
+        return new AllocationChangedEvent(projectId, null, List.of());
+    }
+}
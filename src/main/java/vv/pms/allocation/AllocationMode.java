@@ -0,0 +1,13 @@
+package vv.pms.allocation;
+
+/**
+ * Selects which engine {@link AllocationService#runAllocation(AllocationMode)} uses
+ * to place unassigned students into open project seats.
+ */
+public enum AllocationMode {
+    GREEDY,       // Original first-fit walk over allocations and students
+    OPTIMAL,      // Min-cost max-flow over programs and projects, solved in one pass
+    STABLE,       // Gale–Shapley over the students' ranked preference lists
+    INCREMENTAL,  // OPTIMAL, restricted to students and projects that changed since the last run
+    PARTITIONED   // OPTIMAL, solved per independent program/project component in parallel
+}
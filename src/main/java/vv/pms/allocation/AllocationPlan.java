@@ -0,0 +1,33 @@
+package vv.pms.allocation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of an allocation run computed against an in-memory snapshot, without writing anything.
+ * A plan can be inspected (it serializes to JSON as-is) and later committed exactly as computed
+ * through {@link AllocationService#commitPlan(UUID)}.
+ */
+public record AllocationPlan(
+        UUID id,
+        AllocationMode mode,
+        LocalDateTime createdAt,
+        List<OwnerAssignment> newOwners,
+        List<Placement> adds,
+        List<Move> moves,
+        List<OpenSeats> unfilledSeats,
+        List<Long> unplacedStudentIds
+) {
+    public record OwnerAssignment(Long projectId, Long professorId) {}
+
+    public record Placement(Long studentId, Long projectId) {}
+
+    public record Move(Long studentId, Long fromProjectId, Long toProjectId) {}
+
+    public record OpenSeats(Long projectId, int openSeats) {}
+
+    public boolean isEmpty() {
+        return newOwners.isEmpty() && adds.isEmpty() && moves.isEmpty();
+    }
+}
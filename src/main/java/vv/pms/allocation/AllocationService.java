@@ -1,19 +1,41 @@
 package vv.pms.allocation;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vv.pms.allocation.internal.AllocationChangeSet;
+import vv.pms.allocation.internal.AllocationDirtyTracker;
+import vv.pms.allocation.internal.AllocationPlanCache;
+import vv.pms.allocation.internal.AllocationPlanner;
+import vv.pms.allocation.internal.AllocationSnapshot;
+import vv.pms.allocation.internal.ProfessorLoadBalancer;
+import vv.pms.allocation.internal.SeatClaimGuard;
 import vv.pms.allocation.internal.ProjectAllocationRepository;
+import vv.pms.allocation.internal.StudentPreferenceRepository;
+import vv.pms.allocation.internal.WaitlistEntryRepository;
+import vv.pms.job.JobProgress;
+import vv.pms.professor.Professor;
 import vv.pms.professor.ProfessorService;
 import vv.pms.project.ProjectService;
 import vv.pms.student.StudentService;
 import vv.pms.project.Project;
+import vv.pms.project.ProjectStatus;
 import vv.pms.student.Student;
 import vv.pms.project.ProjectOwnershipGateway;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -22,19 +44,43 @@ import java.util.stream.Collectors;
 public class AllocationService implements ProjectOwnershipGateway {
 
     private final ProjectAllocationRepository repository;
+    private final StudentPreferenceRepository preferenceRepository;
+    private final WaitlistEntryRepository waitlistRepository;
     private final ProfessorService professorService;
     private final ProjectService projectService;
     private final StudentService studentService;
+    private final AllocationPlanner planner;
+    private final AllocationPlanCache planCache;
+    private final AllocationDirtyTracker dirtyTracker;
+    private final ProfessorLoadBalancer loadBalancer;
+    private final SeatClaimGuard seatClaimGuard;
+    private final ApplicationEventPublisher events;
 
     public AllocationService(
             ProjectAllocationRepository repository,
+            StudentPreferenceRepository preferenceRepository,
+            WaitlistEntryRepository waitlistRepository,
             ProfessorService professorService,
             ProjectService projectService,
-            StudentService studentService) {
+            StudentService studentService,
+            AllocationPlanner planner,
+            AllocationPlanCache planCache,
+            AllocationDirtyTracker dirtyTracker,
+            ProfessorLoadBalancer loadBalancer,
+            SeatClaimGuard seatClaimGuard,
+            ApplicationEventPublisher events) {
         this.repository = repository;
+        this.preferenceRepository = preferenceRepository;
+        this.waitlistRepository = waitlistRepository;
         this.professorService = professorService;
         this.projectService = projectService;
         this.studentService = studentService;
+        this.planner = planner;
+        this.planCache = planCache;
+        this.dirtyTracker = dirtyTracker;
+        this.loadBalancer = loadBalancer;
+        this.seatClaimGuard = seatClaimGuard;
+        this.events = events;
     }
 
     // --- 1. Method for the Web Controller (Returns ProjectAllocation) ---
@@ -49,8 +95,12 @@ public class AllocationService implements ProjectOwnershipGateway {
             throw new AllocationStateException("Project " + projectId + " is already allocated to a professor.");
         }
 
-        ProjectAllocation allocation = new ProjectAllocation(projectId, professorId);
-        return repository.save(allocation);
+        ProjectAllocation allocation = repository.save(new ProjectAllocation(projectId, professorId));
+        dirtyTracker.markProject(projectId);
+        // A project that lost its owner keeps its waitlist; serve it as soon as it has seats again
+        promoteFromWaitlist(allocation);
+        events.publishEvent(AllocationChangedEvent.of(allocation));
+        return allocation;
     }
 
     // --- 2. Method for the Interface/ProjectService (Returns void) ---
@@ -70,10 +120,30 @@ public class AllocationService implements ProjectOwnershipGateway {
     public void removeProfessorAllocation(Long projectId) {
         ProjectAllocation allocation = repository.findByProjectId(projectId)
                 .orElseThrow(() -> new AllocationNotFoundException("Allocation for Project ID " + projectId + " not found."));
+        Set<Long> released = new HashSet<>(allocation.getAssignedStudentIds());
         repository.delete(allocation);
+        // The team is freed along with the seats, so its members can apply or be allocated again
+        studentService.updateProjectStatuses(released, false);
+        dirtyTracker.markProject(projectId);
+        released.forEach(dirtyTracker::markStudent);
+        events.publishEvent(AllocationChangedEvent.removed(projectId));
     }
 
+    /**
+     * Claims a seat for the student. Claims on the same project are serialised in-process and
+     * guarded by the allocation's version, so a rush of applicants can never overfill it.
+     * Runs in its own transaction when called without one.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ProjectAllocation assignStudentToProject(Long projectId, Long studentId) {
+        try {
+            return seatClaimGuard.claim(projectId, studentId, () -> claimSeat(projectId, studentId));
+        } catch (OptimisticLockingFailureException e) {
+            throw new AllocationStateException("Project " + projectId + " is busy, please try again.");
+        }
+    }
+
+    private ProjectAllocation claimSeat(Long projectId, Long studentId) {
         ProjectAllocation allocation = repository.findByProjectId(projectId)
                 .orElseThrow(() -> new AllocationNotFoundException("Project " + projectId + " is not yet allocated."));
 
@@ -95,14 +165,17 @@ public class AllocationService implements ProjectOwnershipGateway {
             throw new AllocationStateException("Project " + projectId + " is already full.");
         }
 
-        if (!project.isProgramAllowed(student.getProgram())) {
+        if (!projectService.isProgramAllowed(projectId, student.getProgram())) {
             throw new AllocationStateException("Student's program (" + student.getProgram() + ") does not match restrictions.");
         }
 
         allocation.addStudent(studentId);
         studentService.updateProjectStatus(studentId, true);
+        waitlistRepository.deleteByStudentId(studentId);
+        events.publishEvent(AllocationChangedEvent.of(allocation));
 
-        return repository.save(allocation);
+        // Flush so a lost version check surfaces here, even inside a caller's transaction
+        return repository.saveAndFlush(allocation);
     }
 
     public ProjectAllocation unassignStudentFromProject(Long projectId, Long studentId) {
@@ -115,10 +188,175 @@ public class AllocationService implements ProjectOwnershipGateway {
 
         allocation.unassignStudent(studentId);
         studentService.updateProjectStatus(studentId, false);
+        dirtyTracker.markStudent(studentId);
+        dirtyTracker.markProject(projectId);
+        promoteFromWaitlist(allocation);
+        events.publishEvent(AllocationChangedEvent.of(allocation));
 
         return repository.save(allocation);
     }
 
+    /**
+     * Assigns many (student, project) pairs at once. Everything referenced is loaded with a few
+     * IN queries and checked in memory (capacity including earlier pairs in the batch, program
+     * restrictions, hasProject, duplicates). If any pair fails nothing is written and every
+     * failure is reported; otherwise all pairs are committed together.
+     *
+     * Holds the same seat locks as single claims for every project and student involved. If a
+     * version check is still lost after retries, every pair is reported as failed.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BulkAssignmentResult assignStudentsInBulk(List<AllocationPlan.Placement> pairs) {
+        if (pairs.isEmpty()) return new BulkAssignmentResult(List.of(), List.of());
+
+        Set<Long> projectIds = pairs.stream().map(AllocationPlan.Placement::projectId).collect(Collectors.toSet());
+        Set<Long> studentIds = pairs.stream().map(AllocationPlan.Placement::studentId).collect(Collectors.toSet());
+        try {
+            return seatClaimGuard.claimAll(projectIds, studentIds, () -> claimSeatsInBulk(pairs, projectIds, studentIds));
+        } catch (OptimisticLockingFailureException e) {
+            return new BulkAssignmentResult(List.of(), pairs.stream()
+                    .map(pair -> new BulkAssignmentResult.Failure(pair.studentId(), pair.projectId(),
+                            "Project " + pair.projectId() + " is busy, please try again."))
+                    .toList());
+        }
+    }
+
+    private BulkAssignmentResult claimSeatsInBulk(List<AllocationPlan.Placement> pairs,
+                                                  Set<Long> projectIds, Set<Long> studentIds) {
+
+        Map<Long, ProjectAllocation> allocations = findAllocationsByProjectIds(projectIds);
+        Map<Long, Project> projects = projectService.findProjectsByIds(projectIds).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        Map<Long, Student> students = studentService.findByIds(studentIds);
+        Map<Long, Integer> programMasks = projectService.findProgramMasks(projects.keySet());
+
+        Map<Long, Integer> seatsTaken = new HashMap<>();
+        allocations.forEach((pid, a) -> seatsTaken.put(pid, a.getAssignedStudentIds().size()));
+        Set<Long> placedInBatch = new HashSet<>();
+        List<BulkAssignmentResult.Failure> failures = new ArrayList<>();
+
+        for (AllocationPlan.Placement pair : pairs) {
+            String reason = null;
+            Project project = projects.get(pair.projectId());
+            Student student = students.get(pair.studentId());
+            if (project == null) {
+                reason = "Project ID " + pair.projectId() + " not found.";
+            } else if (!allocations.containsKey(pair.projectId())) {
+                reason = "Project " + pair.projectId() + " is not yet allocated.";
+            } else if (student == null) {
+                reason = "Student ID " + pair.studentId() + " not found.";
+            } else if (student.isHasProject() || placedInBatch.contains(student.getId())) {
+                reason = "Student " + student.getId() + " already has an assigned project.";
+            } else if (seatsTaken.get(project.getId()) >= project.getRequiredStudents()) {
+                reason = "Project " + project.getId() + " is already full.";
+            } else if (student.getProgram() == null || !student.getProgram().isIn(programMasks.get(project.getId()))) {
+                reason = "Student's program (" + student.getProgram() + ") does not match restrictions.";
+            }
+
+            if (reason != null) {
+                failures.add(new BulkAssignmentResult.Failure(pair.studentId(), pair.projectId(), reason));
+            } else {
+                seatsTaken.merge(project.getId(), 1, Integer::sum);
+                placedInBatch.add(student.getId());
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            return new BulkAssignmentResult(List.of(), failures);
+        }
+
+        AllocationChangeSet changes = new AllocationChangeSet();
+        pairs.forEach(pair -> changes.place(allocations.get(pair.projectId()), pair.studentId()));
+        commit(changes);
+        waitlistRepository.deleteByStudentIdIn(changes.getPlacedStudentIds());
+        return new BulkAssignmentResult(List.copyOf(pairs), List.of());
+    }
+
+    /**
+     * Queues the student for a full project. They are promoted automatically, first come first
+     * served, when a seat frees up.
+     */
+    public WaitlistEntry joinWaitlist(Long projectId, Long studentId) {
+        ProjectAllocation allocation = repository.findByProjectId(projectId)
+                .orElseThrow(() -> new AllocationNotFoundException("Project " + projectId + " is not yet allocated."));
+
+        Project project = projectService.findProjectById(projectId)
+                .orElseThrow(() -> new ProjectNotFoundException("Project ID " + projectId + " not found."));
+
+        Student student = studentService.findStudentById(studentId)
+                .orElseThrow(() -> new StudentNotFoundException("Student ID " + studentId + " not found."));
+
+        if (student.isHasProject()) {
+            throw new AllocationStateException("Student " + studentId + " already has an assigned project.");
+        }
+
+        if (!projectService.isProgramAllowed(projectId, student.getProgram())) {
+            throw new AllocationStateException("Student's program (" + student.getProgram() + ") does not match restrictions.");
+        }
+
+        if (allocation.getAssignedStudentIds().size() < project.getRequiredStudents()) {
+            throw new AllocationStateException("Project " + projectId + " still has open seats; apply instead.");
+        }
+
+        if (waitlistRepository.findByProjectIdAndStudentId(projectId, studentId).isPresent()) {
+            throw new AllocationStateException("Student " + studentId + " is already on the waitlist for this project.");
+        }
+
+        return waitlistRepository.save(new WaitlistEntry(projectId, studentId));
+    }
+
+    public void leaveWaitlist(Long projectId, Long studentId) {
+        WaitlistEntry entry = waitlistRepository.findByProjectIdAndStudentId(projectId, studentId)
+                .orElseThrow(() -> new AllocationNotFoundException("Student " + studentId + " is not on the waitlist for this project."));
+        waitlistRepository.delete(entry);
+    }
+
+    /** Student ids waiting for the project, next in line first. */
+    @Transactional(readOnly = true)
+    public List<Long> findWaitlist(Long projectId) {
+        return waitlistRepository.findByProjectIdOrderByIdAsc(projectId).stream()
+                .map(WaitlistEntry::getStudentId)
+                .toList();
+    }
+
+    /** One-based position of the student in the project's waitlist, or 0 if not queued. */
+    @Transactional(readOnly = true)
+    public int findWaitlistPosition(Long projectId, Long studentId) {
+        return findWaitlist(projectId).indexOf(studentId) + 1;
+    }
+
+    /**
+     * Fills the allocation's free seats from its waitlist, in the caller's transaction.
+     * Entries for students that got a project elsewhere or are no longer eligible are dropped.
+     */
+    private void promoteFromWaitlist(ProjectAllocation allocation) {
+        List<WaitlistEntry> queue = waitlistRepository.findByProjectIdOrderByIdAsc(allocation.getProjectId());
+        if (queue.isEmpty()) return;
+
+        Project project = projectService.findProjectById(allocation.getProjectId()).orElse(null);
+        if (project == null || project.getStatus() == ProjectStatus.ARCHIVED) return;
+
+        Map<Long, Student> students = studentService.findByIds(queue.stream()
+                .map(WaitlistEntry::getStudentId)
+                .collect(Collectors.toSet()));
+
+        for (WaitlistEntry entry : queue) {
+            if (allocation.getAssignedStudentIds().size() >= project.getRequiredStudents()) break;
+
+            Student student = students.get(entry.getStudentId());
+            if (student == null || student.isHasProject()
+                    || !projectService.isProgramAllowed(project.getId(), student.getProgram())) {
+                waitlistRepository.delete(entry);
+                continue;
+            }
+
+            allocation.addStudent(student.getId());
+            studentService.updateProjectStatus(student.getId(), true);
+            waitlistRepository.deleteByStudentId(student.getId());
+        }
+        repository.save(allocation);
+    }
+
     @Transactional(readOnly = true)
     public Optional<ProjectAllocation> findAllocationByProjectId(Long projectId) {
         return repository.findByProjectId(projectId);
@@ -126,15 +364,19 @@ public class AllocationService implements ProjectOwnershipGateway {
 
     @Transactional(readOnly = true)
     public Optional<ProjectAllocation> findAllocationByStudentId(Long studentId) {
-        return repository.findAll().stream()
-                .filter(a -> a.getAssignedStudentIds().contains(studentId))
-                .findFirst();
+        return repository.findByAssignedStudentId(studentId).stream().findFirst();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProjectAllocation> findAllocationsByProfessorId(Long professorId) {
+        return repository.findByProfessorId(professorId);
     }
 
     @Transactional(readOnly = true)
     public java.util.List<Long> findStudentsByProjectId(Long projectId) {
+        // Copied so callers outside a transaction do not hit the lazy collection
         return repository.findByProjectId(projectId)
-                .map(ProjectAllocation::getAssignedStudentIds)
+                .map(a -> List.copyOf(a.getAssignedStudentIds()))
                 .orElse(java.util.List.of());
     }
 
@@ -155,40 +397,250 @@ public class AllocationService implements ProjectOwnershipGateway {
         return projectService.findProjectsByIds(projectIds);
     }
 
+    /**
+     * Greedy first-fit run, kept as the default mode.
+     */
     @Transactional
     public void runBestEffortAllocation() {
-        List<Project> projects = projectService.findAllProjects();
-        List<Student> students = studentService.findAllStudents();
-
-        for (Project project : projects) {
-            Optional<ProjectAllocation> existing = repository.findByProjectId(project.getId());
-            if (existing.isEmpty()) {
-                professorService.findAllProfessors().stream().findFirst().ifPresent(prof -> {
-                    try {
-                        assignProfessorToProject(project.getId(), prof.getId());
-                    } catch (RuntimeException ignored) { }
-                });
+        runAllocation(AllocationMode.GREEDY);
+    }
+
+    /**
+     * Runs the allocation engine selected by {@code mode} and commits the result.
+     * {@link AllocationMode#INCREMENTAL} only looks at what changed since the last run.
+     */
+    @Transactional
+    public AllocationPlan runAllocation(AllocationMode mode) {
+        return runAllocation(mode, JobProgress.NONE);
+    }
+
+    /** As {@link #runAllocation(AllocationMode)}, reporting each phase to {@code progress}. */
+    @Transactional
+    public AllocationPlan runAllocation(AllocationMode mode, JobProgress progress) {
+        Optional<AllocationDirtyTracker.Scope> scope = scopeFor(mode);
+        AllocationPlan plan = planAllocation(mode, scope, progress);
+        applyPlan(plan, progress);
+        dirtyTracker.settle(plan, scope.orElse(null));
+        invalidateDirtyTrackerOnRollback();
+        return plan;
+    }
+
+    /**
+     * Dry run: computes what {@code mode} would change against an in-memory snapshot,
+     * without writing. The plan is kept for a while so it can be committed as-is.
+     */
+    @Transactional(readOnly = true)
+    public AllocationPlan previewAllocation(AllocationMode mode) {
+        AllocationPlan plan = planAllocation(mode, scopeFor(mode), JobProgress.NONE);
+        planCache.put(plan);
+        return plan;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AllocationPlan> findPlan(UUID planId) {
+        return planCache.get(planId);
+    }
+
+    /**
+     * Commits a previewed plan exactly as computed, in one batched transaction.
+     * Fails without writing anything if the data changed in a way that invalidates the plan.
+     */
+    public AllocationPlan commitPlan(UUID planId) {
+        AllocationPlan plan = planCache.take(planId)
+                .orElseThrow(() -> new AllocationNotFoundException("Plan " + planId + " not found or expired."));
+        applyPlan(plan, JobProgress.NONE);
+        // Changes made since the preview are still marked, so only add the leftovers
+        dirtyTracker.include(plan);
+        invalidateDirtyTrackerOnRollback();
+        return plan;
+    }
+
+    /** Replaces the student's ranked project list, most preferred first. */
+    public StudentPreference savePreferences(Long studentId, List<Long> rankedProjectIds) {
+        studentService.findStudentById(studentId)
+                .orElseThrow(() -> new StudentNotFoundException("Student ID " + studentId + " not found."));
+
+        Set<Long> requested = new HashSet<>(rankedProjectIds);
+        Set<Long> known = projectService.findProjectsByIds(requested).stream()
+                .map(Project::getId)
+                .collect(Collectors.toSet());
+        requested.removeAll(known);
+        if (!requested.isEmpty()) {
+            throw new ProjectNotFoundException("Project IDs " + requested + " not found.");
+        }
+
+        StudentPreference preference = preferenceRepository.findByStudentId(studentId)
+                .orElseGet(() -> new StudentPreference(studentId, List.of()));
+        preference.setRankedProjectIds(rankedProjectIds);
+        return preferenceRepository.save(preference);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<StudentPreference> findPreferences(Long studentId) {
+        return preferenceRepository.findByStudentId(studentId);
+    }
+
+    // --- Shared helpers for the bulk allocation engines ---
+
+    private Optional<AllocationDirtyTracker.Scope> scopeFor(AllocationMode mode) {
+        return mode == AllocationMode.INCREMENTAL ? dirtyTracker.peek() : Optional.empty();
+    }
+
+    /**
+     * Plans against everything, or only against the dirty students and projects when a scope
+     * is given. Incremental runs without a baseline yet fall back to a full run.
+     */
+    private AllocationPlan planAllocation(AllocationMode mode, Optional<AllocationDirtyTracker.Scope> scope,
+                                          JobProgress progress) {
+        progress.phase("Loading data", 0);
+        AllocationSnapshot snapshot = scope.map(this::loadSnapshot).orElseGet(() -> {
+            List<Project> projects = projectService.findAllProjects();
+            return new AllocationSnapshot(projects, studentService.findAllStudents(), repository.findAll(),
+                    projectService.findProgramMasks(projects.stream().map(Project::getId).toList()));
+        });
+
+        // Unowned projects go to the least loaded professors; professors are only loaded if needed
+        List<Project> unowned = snapshot.getProjects().stream()
+                .filter(p -> !snapshot.isOwned(p.getId()))
+                .toList();
+        if (!unowned.isEmpty()) {
+            ProfessorLoadBalancer.Round owners = loadBalancer.start(professorService.findAllProfessors().stream()
+                    .map(Professor::getId)
+                    .toList());
+            for (Project project : unowned) {
+                owners.next().ifPresent(professorId -> snapshot.proposeOwner(project.getId(), professorId));
             }
         }
 
-        students = studentService.findAllStudents();
-        List<ProjectAllocation> allocations = repository.findAll();
+        progress.phase("Planning (" + mode + ")", snapshot.getStudents().size());
+        switch (mode) {
+            case OPTIMAL, INCREMENTAL -> planner.planOptimal(snapshot);
+            case PARTITIONED -> planner.planPartitioned(snapshot);
+            case STABLE -> planner.planStable(snapshot, preferenceRepository.findAllWithRankings());
+            default -> planner.planGreedy(snapshot);
+        }
+        progress.advance(snapshot.getStudents().size());
+        return snapshot.toPlan(mode);
+    }
 
-        for (ProjectAllocation allocation : allocations) {
-            Project project = projectService.findProjectById(allocation.getProjectId()).orElse(null);
-            if (project == null) continue;
+    private AllocationSnapshot loadSnapshot(AllocationDirtyTracker.Scope scope) {
+        List<Student> students = new ArrayList<>(studentService.findByIds(scope.studentIds()).values());
+        students.sort(Comparator.comparing(Student::getId));
+        List<Project> projects = new ArrayList<>(projectService.findProjectsByIds(scope.projectIds()));
+        projects.sort(Comparator.comparing(Project::getId));
+        return new AllocationSnapshot(projects, students, repository.findByProjectIdIn(scope.projectIds()),
+                projectService.findProgramMasks(scope.projectIds()));
+    }
+
+    // The tracker is updated eagerly; if the run is rolled back the next incremental run is a full one
+    private void invalidateDirtyTrackerOnRollback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    dirtyTracker.invalidate();
+                }
+            }
+        });
+    }
 
-            int capacity = project.getRequiredStudents();
-            for (Student student : students) {
-                if (student.isHasProject()) continue;
-                if (!project.getProgramRestrictions().isEmpty() && !project.getProgramRestrictions().contains(student.getProgram())) continue;
-                if (allocation.getAssignedStudentIds().size() >= capacity) break;
+    /**
+     * Re-validates a plan against the current data and writes it. Only the allocations the plan
+     * touches are loaded, in a fixed number of queries; any placement that no longer fits aborts
+     * the whole plan.
+     */
+    private void applyPlan(AllocationPlan plan, JobProgress progress) {
+        Set<Long> involved = new HashSet<>();
+        plan.newOwners().forEach(o -> involved.add(o.projectId()));
+        plan.adds().forEach(a -> involved.add(a.projectId()));
+        plan.moves().forEach(m -> {
+            involved.add(m.fromProjectId());
+            involved.add(m.toProjectId());
+        });
+
+        Map<Long, ProjectAllocation> allocations = new HashMap<>();
+        Map<Long, Long> currentProject = new HashMap<>();
+        for (ProjectAllocation allocation : repository.findByProjectIdIn(involved)) {
+            allocations.put(allocation.getProjectId(), allocation);
+            allocation.getAssignedStudentIds().forEach(sid -> currentProject.put(sid, allocation.getProjectId()));
+        }
+
+        AllocationChangeSet changes = new AllocationChangeSet();
+        for (AllocationPlan.OwnerAssignment owner : plan.newOwners()) {
+            if (!allocations.containsKey(owner.projectId())) {
+                ProjectAllocation allocation = new ProjectAllocation(owner.projectId(), owner.professorId());
+                allocations.put(owner.projectId(), allocation);
+                changes.touch(allocation);
+            }
+        }
+
+        List<AllocationPlan.Placement> placements = new ArrayList<>(plan.adds());
+        plan.moves().forEach(m -> placements.add(new AllocationPlan.Placement(m.studentId(), m.toProjectId())));
+
+        Map<Long, Project> projects = projectService.findProjectsByIds(placements.stream()
+                        .map(AllocationPlan.Placement::projectId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        Map<Long, Student> students = studentService.findByIds(placements.stream()
+                .map(AllocationPlan.Placement::studentId)
+                .collect(Collectors.toSet()));
+        Map<Long, Integer> programMasks = projectService.findProgramMasks(projects.keySet());
+
+        // Release moved students first so swaps between projects fit
+        Set<Long> movedStudents = new HashSet<>();
+        for (AllocationPlan.Move move : plan.moves()) {
+            if (!move.fromProjectId().equals(currentProject.get(move.studentId()))) {
+                throw new AllocationStateException("Plan is out of date: student " + move.studentId()
+                        + " is no longer on project " + move.fromProjectId() + ".");
+            }
+            changes.release(allocations.get(move.fromProjectId()), move.studentId());
+            currentProject.remove(move.studentId());
+            movedStudents.add(move.studentId());
+        }
 
-                try {
-                    assignStudentToProject(project.getId(), student.getId());
-                } catch (RuntimeException ignored) { }
+        progress.phase("Validating plan", placements.size());
+        for (AllocationPlan.Placement placement : placements) {
+            progress.advance(1);
+            Student student = students.get(placement.studentId());
+            Project project = projects.get(placement.projectId());
+            ProjectAllocation allocation = allocations.get(placement.projectId());
+            if (student == null || project == null || allocation == null) {
+                throw new AllocationStateException("Plan is out of date: student " + placement.studentId()
+                        + " or project " + placement.projectId() + " no longer exists.");
+            }
+            if (currentProject.containsKey(student.getId()) || (!movedStudents.contains(student.getId()) && student.isHasProject())) {
+                throw new AllocationStateException("Plan is out of date: student " + student.getId()
+                        + " already has an assigned project.");
+            }
+            if (allocation.getAssignedStudentIds().size() >= project.getRequiredStudents()) {
+                throw new AllocationStateException("Plan is out of date: project " + project.getId() + " is already full.");
             }
+            if (student.getProgram() == null || !student.getProgram().isIn(programMasks.get(project.getId()))) {
+                throw new AllocationStateException("Plan is out of date: student " + student.getId()
+                        + " is not eligible for project " + project.getId() + ".");
+            }
+
+            changes.place(allocation, student.getId());
+            currentProject.put(student.getId(), project.getId());
         }
+
+        progress.phase("Writing", changes.getChangedAllocations().size());
+        commit(changes);
+        progress.advance(changes.getChangedAllocations().size());
+    }
+
+    /**
+     * Writes a whole run in one go: allocation rows and their student collections are flushed
+     * as JDBC batches, then student flags are set with one set-based UPDATE per direction.
+     */
+    private void commit(AllocationChangeSet changes) {
+        if (changes.isEmpty()) return;
+        repository.saveAll(changes.getChangedAllocations());
+        repository.flush();
+        studentService.updateProjectStatuses(changes.getPlacedStudentIds(), true);
+        studentService.updateProjectStatuses(changes.getReleasedStudentIds(), false);
+        changes.getChangedAllocations().forEach(a -> events.publishEvent(AllocationChangedEvent.of(a)));
     }
 
     @Transactional(readOnly = true)
@@ -196,6 +648,19 @@ public class AllocationService implements ProjectOwnershipGateway {
         return repository.findAll();
     }
 
+    /** As {@link #findAllAllocations()}, with every team fetched in the same query. */
+    @Transactional(readOnly = true)
+    public List<ProjectAllocation> findAllAllocationsWithStudents() {
+        return repository.findAllWithStudents();
+    }
+
+    /** As {@link #findAllocationsByProjectIds(Set)}, with every team fetched in the same query. */
+    @Transactional(readOnly = true)
+    public Map<Long, ProjectAllocation> findAllocationsWithStudentsByProjectIds(Set<Long> projectIds) {
+        return repository.findWithStudentsByProjectIdIn(projectIds).stream()
+                .collect(Collectors.toMap(ProjectAllocation::getProjectId, Function.identity()));
+    }
+
     @Transactional(readOnly = true)
     public Map<Long, ProjectAllocation> findAllocationsByProjectIds(Set<Long> projectIds) {
         return repository.findByProjectIdIn(projectIds).stream()
@@ -0,0 +1,18 @@
+package vv.pms.allocation;
+
+import java.util.List;
+
+/**
+ * Outcome of {@link AllocationService#assignStudentsInBulk(List)}: either every pair was
+ * assigned, or nothing was written and {@code failures} says which pairs were rejected and why.
+ */
+public record BulkAssignmentResult(
+        List<AllocationPlan.Placement> assigned,
+        List<Failure> failures
+) {
+    public record Failure(Long studentId, Long projectId, String reason) {}
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+}
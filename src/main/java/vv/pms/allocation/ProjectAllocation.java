@@ -18,8 +18,17 @@ public class ProjectAllocation {
     @Column(nullable = false)
     private Long professorId;
 
+    // Bumped on every change to the row or its student list; concurrent seat claims on the
+    // same project cannot both commit against the same count
+    @Version
+    private Long version;
+
+    // Indexed list: appending a student is one INSERT instead of rewriting the whole collection.
+    // student_id is indexed for the student -> allocation lookup.
     @ElementCollection
-    @CollectionTable(name = "allocation_students", joinColumns = @JoinColumn(name = "allocation_id"))
+    @CollectionTable(name = "allocation_students", joinColumns = @JoinColumn(name = "allocation_id"),
+            indexes = @Index(name = "idx_allocation_students_student_id", columnList = "student_id"))
+    @OrderColumn(name = "student_order")
     @Column(name = "student_id", nullable = false)
     private List<Long> assignedStudentIds = new ArrayList<>();
 
@@ -60,6 +69,10 @@ public class ProjectAllocation {
         return professorId;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public List<Long> getAssignedStudentIds() {
         return assignedStudentIds;
     }
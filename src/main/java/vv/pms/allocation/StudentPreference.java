@@ -0,0 +1,53 @@
+package vv.pms.allocation;
+
+import jakarta.persistence.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@Entity
+@Table(name = "student_preferences")
+public class StudentPreference {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long studentId;
+
+    // Most preferred project first
+    @ElementCollection
+    @CollectionTable(name = "student_preference_projects", joinColumns = @JoinColumn(name = "preference_id"))
+    @OrderColumn(name = "preference_rank")
+    @Column(name = "project_id", nullable = false)
+    private List<Long> rankedProjectIds = new ArrayList<>();
+
+    public StudentPreference() {}
+
+    public StudentPreference(Long studentId, List<Long> rankedProjectIds) {
+        this.studentId = studentId;
+        setRankedProjectIds(rankedProjectIds);
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() {
+        return id;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public List<Long> getRankedProjectIds() {
+        return rankedProjectIds;
+    }
+
+    /** Replaces the ranking, dropping duplicates while keeping the first occurrence. */
+    public void setRankedProjectIds(List<Long> rankedProjectIds) {
+        this.rankedProjectIds.clear();
+        if (rankedProjectIds != null) {
+            this.rankedProjectIds.addAll(new LinkedHashSet<>(rankedProjectIds));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package vv.pms.allocation;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A student queued for a full project. Entries are served in id order (first come, first served).
+ */
+@Entity
+@Table(name = "project_waitlist",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"projectId", "studentId"}),
+        indexes = @Index(name = "idx_project_waitlist_project", columnList = "projectId, id"))
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long projectId;
+
+    @Column(nullable = false)
+    private Long studentId;
+
+    @Column(nullable = false)
+    private LocalDateTime joinedAt;
+
+    public WaitlistEntry() {}
+
+    public WaitlistEntry(Long projectId, Long studentId) {
+        this.projectId = projectId;
+        this.studentId = studentId;
+        this.joinedAt = LocalDateTime.now();
+    }
+
+    // --- Getters ---
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+}
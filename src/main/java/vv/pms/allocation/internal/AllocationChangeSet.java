@@ -0,0 +1,54 @@
+package vv.pms.allocation.internal;
+
+import vv.pms.allocation.ProjectAllocation;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collects every change made during a bulk allocation run so it can be written in one
+ * batch at the end, instead of one save per pairing.
+ */
+public class AllocationChangeSet {
+
+    private final Set<ProjectAllocation> changedAllocations = new LinkedHashSet<>();
+    private final Set<Long> placedStudentIds = new LinkedHashSet<>();
+    private final Set<Long> releasedStudentIds = new LinkedHashSet<>();
+
+    /** Marks an allocation as needing a write (e.g. newly created for an unowned project). */
+    public void touch(ProjectAllocation allocation) {
+        changedAllocations.add(allocation);
+    }
+
+    public void place(ProjectAllocation allocation, Long studentId) {
+        allocation.addStudent(studentId);
+        changedAllocations.add(allocation);
+        if (!releasedStudentIds.remove(studentId)) {
+            placedStudentIds.add(studentId);
+        }
+    }
+
+    public void release(ProjectAllocation allocation, Long studentId) {
+        allocation.removeStudent(studentId);
+        changedAllocations.add(allocation);
+        if (!placedStudentIds.remove(studentId)) {
+            releasedStudentIds.add(studentId);
+        }
+    }
+
+    public Set<ProjectAllocation> getChangedAllocations() {
+        return changedAllocations;
+    }
+
+    public Set<Long> getPlacedStudentIds() {
+        return placedStudentIds;
+    }
+
+    public Set<Long> getReleasedStudentIds() {
+        return releasedStudentIds;
+    }
+
+    public boolean isEmpty() {
+        return changedAllocations.isEmpty();
+    }
+}
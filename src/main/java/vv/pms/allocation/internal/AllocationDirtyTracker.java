@@ -0,0 +1,81 @@
+package vv.pms.allocation.internal;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import vv.pms.allocation.AllocationPlan;
+import vv.pms.project.ProjectChangedEvent;
+import vv.pms.student.StudentChangedEvent;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Remembers which students and projects may need attention since the last allocation run:
+ * students that became unassigned or changed, projects whose capacity, restrictions or owner
+ * changed, plus whatever the last run left unplaced or unfilled.
+ *
+ * Until a full run has established a baseline, {@link #peek()} is empty and incremental runs
+ * fall back to a full run. {@link #invalidate()} drops the baseline again.
+ */
+@Component
+public class AllocationDirtyTracker {
+
+    public record Scope(Set<Long> studentIds, Set<Long> projectIds) {}
+
+    private final Set<Long> studentIds = new HashSet<>();
+    private final Set<Long> projectIds = new HashSet<>();
+    private boolean baseline = false;
+
+    @EventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        markProject(event.projectId());
+    }
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        markStudent(event.studentId());
+    }
+
+    public synchronized void markStudent(Long studentId) {
+        if (studentId != null) studentIds.add(studentId);
+    }
+
+    public synchronized void markProject(Long projectId) {
+        if (projectId != null) projectIds.add(projectId);
+    }
+
+    /** Copy of the current dirty set, or empty when there is no baseline to be incremental against. */
+    public synchronized Optional<Scope> peek() {
+        if (!baseline) return Optional.empty();
+        return Optional.of(new Scope(Set.copyOf(studentIds), Set.copyOf(projectIds)));
+    }
+
+    /**
+     * Records the outcome of a run. A full run ({@code processed == null}) resets the tracker;
+     * an incremental run clears only what it processed. Leftovers stay dirty either way.
+     */
+    public synchronized void settle(AllocationPlan plan, Scope processed) {
+        if (processed == null) {
+            studentIds.clear();
+            projectIds.clear();
+            baseline = true;
+        } else {
+            studentIds.removeAll(processed.studentIds());
+            projectIds.removeAll(processed.projectIds());
+        }
+        include(plan);
+    }
+
+    /** Keeps a plan's unplaced students and unfilled projects around for the next run. */
+    public synchronized void include(AllocationPlan plan) {
+        studentIds.addAll(plan.unplacedStudentIds());
+        plan.unfilledSeats().forEach(seats -> projectIds.add(seats.projectId()));
+    }
+
+    public synchronized void invalidate() {
+        studentIds.clear();
+        projectIds.clear();
+        baseline = false;
+    }
+}
@@ -0,0 +1,49 @@
+package vv.pms.allocation.internal;
+
+import org.springframework.stereotype.Component;
+import vv.pms.allocation.AllocationPlan;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Holds recently previewed plans so a coordinator can commit exactly what they reviewed.
+ * Bounded in size; plans older than {@link #TTL} are treated as gone.
+ */
+@Component
+public class AllocationPlanCache {
+
+    private static final int MAX_PLANS = 32;
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private final Map<UUID, AllocationPlan> plans = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, AllocationPlan> eldest) {
+            return size() > MAX_PLANS;
+        }
+    };
+
+    public synchronized void put(AllocationPlan plan) {
+        plans.put(plan.id(), plan);
+    }
+
+    public synchronized Optional<AllocationPlan> get(UUID planId) {
+        AllocationPlan plan = plans.get(planId);
+        if (plan != null && plan.createdAt().plus(TTL).isBefore(LocalDateTime.now())) {
+            plans.remove(planId);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(plan);
+    }
+
+    /** Removes and returns the plan so it can only be committed once. */
+    public synchronized Optional<AllocationPlan> take(UUID planId) {
+        Optional<AllocationPlan> plan = get(planId);
+        plan.ifPresent(p -> plans.remove(planId));
+        return plan;
+    }
+}
@@ -0,0 +1,211 @@
+package vv.pms.allocation.internal;
+
+import org.springframework.stereotype.Component;
+import vv.pms.allocation.StudentPreference;
+import vv.pms.project.Program;
+import vv.pms.project.Project;
+import vv.pms.student.Student;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The allocation engines. Each one places waiting students into open seats of an
+ * {@link AllocationSnapshot}; none of them read from or write to the database.
+ */
+@Component
+public class AllocationPlanner {
+
+    /**
+     * Greedy first-fit: walks projects in id order and fills each with the first eligible
+     * waiting students.
+     */
+    public void planGreedy(AllocationSnapshot snapshot) {
+        for (Project project : snapshot.getProjects()) {
+            if (!snapshot.isOpen(project)) continue;
+
+            for (Student student : snapshot.getStudents()) {
+                if (snapshot.seatsLeft(project) == 0) break;
+                if (!snapshot.isWaiting(student)) continue;
+                if (!snapshot.isProgramAllowed(project.getId(), student.getProgram())) continue;
+
+                snapshot.place(project.getId(), student.getId());
+            }
+        }
+    }
+
+    /**
+     * Fills as many open seats as possible in one pass using min-cost max-flow.
+     * Seats on narrowly restricted projects are preferred, leaving broadly eligible seats free.
+     */
+    public void planOptimal(AllocationSnapshot snapshot) {
+        List<Project> open = openProjects(snapshot);
+        solveOptimal(waitingStudents(snapshot), open, seatsLeft(snapshot, open), snapshot.getProgramMasks())
+                .forEach((studentId, projectId) -> snapshot.place(projectId, studentId));
+    }
+
+    /**
+     * Same result as {@link #planOptimal}, but split into connected components of the
+     * program/project eligibility graph first. Components share no seats and no students,
+     * so each is solved independently on the fork/join pool and the results are merged.
+     */
+    public void planPartitioned(AllocationSnapshot snapshot) {
+        List<Project> open = openProjects(snapshot);
+        Map<Long, Integer> seats = seatsLeft(snapshot, open);
+
+        // Union-find over programs: a project links every program it accepts
+        Program[] programs = Program.values();
+        int[] parent = new int[programs.length];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+        Map<Integer, List<Project>> projectsByRoot = new TreeMap<>();
+        for (Project project : open) {
+            int mask = snapshot.programMask(project.getId());
+            if (mask == 0) continue;
+            int first = Integer.numberOfTrailingZeros(mask);
+            for (int rest = mask & (mask - 1); rest != 0; rest &= rest - 1) {
+                parent[find(parent, Integer.numberOfTrailingZeros(rest))] = find(parent, first);
+            }
+        }
+        for (Project project : open) {
+            int mask = snapshot.programMask(project.getId());
+            if (mask == 0) continue;
+            int root = find(parent, Integer.numberOfTrailingZeros(mask));
+            projectsByRoot.computeIfAbsent(root, r -> new ArrayList<>()).add(project);
+        }
+
+        Map<Integer, List<Student>> studentsByRoot = new HashMap<>();
+        for (Student student : waitingStudents(snapshot)) {
+            studentsByRoot.computeIfAbsent(find(parent, student.getProgram().ordinal()), r -> new ArrayList<>())
+                    .add(student);
+        }
+
+        List<Integer> components = projectsByRoot.keySet().stream()
+                .filter(studentsByRoot::containsKey)
+                .toList();
+
+        List<Map<Long, Long>> results = ForkJoinPool.commonPool().submit(() -> components.parallelStream()
+                        .map(root -> solveOptimal(studentsByRoot.get(root), projectsByRoot.get(root), seats,
+                                snapshot.getProgramMasks()))
+                        .toList())
+                .join();
+
+        results.forEach(matches -> matches.forEach((studentId, projectId) -> snapshot.place(projectId, studentId)));
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static List<Student> waitingStudents(AllocationSnapshot snapshot) {
+        return snapshot.getStudents().stream()
+                .filter(s -> snapshot.isWaiting(s) && s.getProgram() != null)
+                .toList();
+    }
+
+    private static List<Project> openProjects(AllocationSnapshot snapshot) {
+        return snapshot.getProjects().stream()
+                .filter(snapshot::isOpen)
+                .toList();
+    }
+
+    private static Map<Long, Integer> seatsLeft(AllocationSnapshot snapshot, List<Project> open) {
+        Map<Long, Integer> seats = new HashMap<>();
+        open.forEach(p -> seats.put(p.getId(), snapshot.seatsLeft(p)));
+        return seats;
+    }
+
+    /**
+     * Students of the same program are interchangeable, so the network is
+     * source -> program -> project -> sink and stays small however many students are enrolled.
+     * Pure function of its arguments, safe to run for several components at once.
+     *
+     * @return studentId -> projectId
+     */
+    private static Map<Long, Long> solveOptimal(List<Student> students, List<Project> open, Map<Long, Integer> seats,
+                                                Map<Long, Integer> masks) {
+        Map<Program, Deque<Long>> waiting = new EnumMap<>(Program.class);
+        for (Student student : students) {
+            waiting.computeIfAbsent(student.getProgram(), p -> new ArrayDeque<>()).add(student.getId());
+        }
+
+        Program[] programs = Program.values();
+        int source = 0;
+        int sink = 1;
+        int firstProjectNode = 2 + programs.length;
+        MinCostFlowNetwork network = new MinCostFlowNetwork(firstProjectNode + open.size());
+
+        for (int i = 0; i < programs.length; i++) {
+            int count = waiting.getOrDefault(programs[i], new ArrayDeque<>()).size();
+            if (count > 0) network.addEdge(source, 2 + i, count, 0);
+        }
+
+        int[][] edges = new int[programs.length][open.size()];
+        for (int[] row : edges) Arrays.fill(row, -1);
+        for (int j = 0; j < open.size(); j++) {
+            Project project = open.get(j);
+            network.addEdge(firstProjectNode + j, sink, seats.get(project.getId()), 0);
+            int mask = masks.getOrDefault(project.getId(), 0);
+            for (int i = 0; i < programs.length; i++) {
+                if (programs[i].isIn(mask)) {
+                    int breadth = Integer.bitCount(mask);
+                    edges[i][j] = network.addEdge(2 + i, firstProjectNode + j, MinCostFlowNetwork.INFINITE, breadth);
+                }
+            }
+        }
+
+        network.solve(source, sink);
+
+        Map<Long, Long> matches = new LinkedHashMap<>();
+        for (int i = 0; i < programs.length; i++) {
+            for (int j = 0; j < open.size(); j++) {
+                if (edges[i][j] < 0) continue;
+                int flow = network.flowOn(edges[i][j]);
+                for (int k = 0; k < flow; k++) {
+                    matches.put(waiting.get(programs[i]).poll(), open.get(j).getId());
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Settles every submitted preference list in one batch using student-proposing
+     * deferred acceptance. Entries the student is not eligible for are skipped up front.
+     */
+    public void planStable(AllocationSnapshot snapshot, List<StudentPreference> rankings) {
+        Map<Long, Integer> capacities = new HashMap<>();
+        for (Project project : snapshot.getProjects()) {
+            if (snapshot.isOpen(project)) capacities.put(project.getId(), snapshot.seatsLeft(project));
+        }
+
+        Map<Long, Student> students = new HashMap<>();
+        snapshot.getStudents().forEach(s -> students.put(s.getId(), s));
+
+        Map<Long, List<Long>> preferences = new HashMap<>();
+        for (StudentPreference ranking : rankings) {
+            Student student = students.get(ranking.getStudentId());
+            if (student == null || !snapshot.isWaiting(student)) continue;
+            List<Long> eligible = ranking.getRankedProjectIds().stream()
+                    .filter(capacities::containsKey)
+                    .filter(pid -> snapshot.isProgramAllowed(pid, student.getProgram()))
+                    .toList();
+            if (!eligible.isEmpty()) preferences.put(student.getId(), eligible);
+        }
+
+        new StableMatcher().match(preferences, capacities)
+                .forEach((studentId, projectId) -> snapshot.place(projectId, studentId));
+    }
+}
@@ -0,0 +1,139 @@
+package vv.pms.allocation.internal;
+
+import vv.pms.allocation.AllocationMode;
+import vv.pms.allocation.AllocationPlan;
+import vv.pms.allocation.ProjectAllocation;
+import vv.pms.project.Program;
+import vv.pms.project.Project;
+import vv.pms.project.ProjectStatus;
+import vv.pms.student.Student;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Detached, in-memory copy of projects, students and allocations that the allocation engines
+ * work on. Nothing here is a managed entity collection, so a run can be previewed and thrown
+ * away without touching the database. Eligibility comes from the projects' program masks, taken
+ * from the eligibility index, so the projects' restriction collections are never loaded.
+ */
+public class AllocationSnapshot {
+
+    private final List<Project> projects;
+    private final List<Student> students;
+    private final Map<Long, Project> projectsById = new HashMap<>();
+    private final Map<Long, Integer> programMasks;                         // projectId -> eligibility mask
+    private final Map<Long, Long> owners = new HashMap<>();               // projectId -> professorId
+    private final Map<Long, Long> newOwners = new LinkedHashMap<>();      // proposed by this run
+    private final Map<Long, List<Long>> members = new HashMap<>();        // projectId -> student ids
+    private final Map<Long, Long> baseline = new HashMap<>();             // studentId -> projectId before the run
+    private final Map<Long, Long> current = new LinkedHashMap<>();        // studentId -> projectId now
+
+    public AllocationSnapshot(List<Project> projects, List<Student> students, List<ProjectAllocation> allocations,
+                              Map<Long, Integer> programMasks) {
+        this.projects = projects;
+        this.students = students;
+        this.programMasks = Map.copyOf(programMasks);
+        projects.forEach(p -> projectsById.put(p.getId(), p));
+        for (ProjectAllocation allocation : allocations) {
+            owners.put(allocation.getProjectId(), allocation.getProfessorId());
+            members.put(allocation.getProjectId(), new ArrayList<>(allocation.getAssignedStudentIds()));
+            allocation.getAssignedStudentIds().forEach(sid -> baseline.put(sid, allocation.getProjectId()));
+        }
+        current.putAll(baseline);
+    }
+
+    public List<Project> getProjects() {
+        return projects;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public Project getProject(Long projectId) {
+        return projectsById.get(projectId);
+    }
+
+    public int programMask(Long projectId) {
+        return programMasks.getOrDefault(projectId, 0);
+    }
+
+    public Map<Long, Integer> getProgramMasks() {
+        return programMasks;
+    }
+
+    public boolean isProgramAllowed(Long projectId, Program program) {
+        return program != null && program.isIn(programMask(projectId));
+    }
+
+    public boolean isOwned(Long projectId) {
+        return owners.containsKey(projectId);
+    }
+
+    public void proposeOwner(Long projectId, Long professorId) {
+        owners.put(projectId, professorId);
+        newOwners.put(projectId, professorId);
+        members.putIfAbsent(projectId, new ArrayList<>());
+    }
+
+    public int seatsLeft(Project project) {
+        List<Long> assigned = members.get(project.getId());
+        return assigned == null ? 0 : Math.max(0, project.getRequiredStudents() - assigned.size());
+    }
+
+    /** Owned, not archived and with at least one free seat. */
+    public boolean isOpen(Project project) {
+        return isOwned(project.getId())
+                && project.getStatus() != ProjectStatus.ARCHIVED
+                && seatsLeft(project) > 0;
+    }
+
+    /** True when the student has no project yet, either in the database or earlier in this run. */
+    public boolean isWaiting(Student student) {
+        return !student.isHasProject() && !current.containsKey(student.getId());
+    }
+
+    public void place(Long projectId, Long studentId) {
+        Long previous = current.put(studentId, projectId);
+        if (previous != null) {
+            members.get(previous).remove(studentId);
+        }
+        members.get(projectId).add(studentId);
+    }
+
+    /** Diffs the working state against what was loaded. */
+    public AllocationPlan toPlan(AllocationMode mode) {
+        List<AllocationPlan.OwnerAssignment> owned = new ArrayList<>();
+        newOwners.forEach((pid, profId) -> owned.add(new AllocationPlan.OwnerAssignment(pid, profId)));
+
+        List<AllocationPlan.Placement> adds = new ArrayList<>();
+        List<AllocationPlan.Move> moves = new ArrayList<>();
+        current.forEach((studentId, projectId) -> {
+            Long before = baseline.get(studentId);
+            if (before == null) {
+                adds.add(new AllocationPlan.Placement(studentId, projectId));
+            } else if (!before.equals(projectId)) {
+                moves.add(new AllocationPlan.Move(studentId, before, projectId));
+            }
+        });
+
+        List<AllocationPlan.OpenSeats> unfilled = new ArrayList<>();
+        for (Project project : projects) {
+            if (isOpen(project)) unfilled.add(new AllocationPlan.OpenSeats(project.getId(), seatsLeft(project)));
+        }
+
+        List<Long> unplaced = students.stream()
+                .filter(this::isWaiting)
+                .map(Student::getId)
+                .toList();
+
+        return new AllocationPlan(UUID.randomUUID(), mode, LocalDateTime.now(),
+                owned, adds, moves, unfilled, unplaced);
+    }
+}
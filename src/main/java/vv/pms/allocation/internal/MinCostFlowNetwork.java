@@ -0,0 +1,115 @@
+package vv.pms.allocation.internal;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Small in-memory flow network solved with successive shortest paths (SPFA).
+ * Edges are stored in flat arrays so the solver does not allocate per edge.
+ */
+public class MinCostFlowNetwork {
+
+    public static final int INFINITE = Integer.MAX_VALUE;
+
+    private final int nodeCount;
+    private final int[] head;
+
+    private int[] to = new int[16];
+    private int[] next = new int[16];
+    private int[] capacity = new int[16];
+    private int[] cost = new int[16];
+    private int edgeCount = 0;
+
+    public MinCostFlowNetwork(int nodeCount) {
+        this.nodeCount = nodeCount;
+        this.head = new int[nodeCount];
+        Arrays.fill(head, -1);
+    }
+
+    /**
+     * Adds a directed edge and returns its id, which can later be passed to {@link #flowOn(int)}.
+     */
+    public int addEdge(int from, int toNode, int cap, int edgeCost) {
+        int id = edgeCount;
+        push(from, toNode, cap, edgeCost);
+        push(toNode, from, 0, -edgeCost);
+        return id;
+    }
+
+    /** Flow currently pushed through the edge returned by {@link #addEdge}. */
+    public int flowOn(int edgeId) {
+        return capacity[edgeId ^ 1];
+    }
+
+    /**
+     * Pushes as much flow as possible from source to sink at minimum total cost.
+     *
+     * @return { total flow, total cost }
+     */
+    public long[] solve(int source, int sink) {
+        long totalFlow = 0;
+        long totalCost = 0;
+
+        long[] dist = new long[nodeCount];
+        int[] viaEdge = new int[nodeCount];
+        boolean[] queued = new boolean[nodeCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        while (true) {
+            Arrays.fill(dist, Long.MAX_VALUE);
+            Arrays.fill(viaEdge, -1);
+            dist[source] = 0;
+            queue.add(source);
+            queued[source] = true;
+
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                queued[u] = false;
+                for (int e = head[u]; e != -1; e = next[e]) {
+                    if (capacity[e] <= 0) continue;
+                    int v = to[e];
+                    long candidate = dist[u] + cost[e];
+                    if (candidate < dist[v]) {
+                        dist[v] = candidate;
+                        viaEdge[v] = e;
+                        if (!queued[v]) {
+                            queue.add(v);
+                            queued[v] = true;
+                        }
+                    }
+                }
+            }
+
+            if (dist[sink] == Long.MAX_VALUE) break;
+
+            int push = INFINITE;
+            for (int v = sink; v != source; v = to[viaEdge[v] ^ 1]) {
+                push = Math.min(push, capacity[viaEdge[v]]);
+            }
+            for (int v = sink; v != source; v = to[viaEdge[v] ^ 1]) {
+                capacity[viaEdge[v]] -= push;
+                capacity[viaEdge[v] ^ 1] += push;
+            }
+            totalFlow += push;
+            totalCost += (long) push * dist[sink];
+        }
+
+        return new long[] { totalFlow, totalCost };
+    }
+
+    private void push(int from, int toNode, int cap, int edgeCost) {
+        if (edgeCount == to.length) {
+            int size = edgeCount * 2;
+            to = Arrays.copyOf(to, size);
+            next = Arrays.copyOf(next, size);
+            capacity = Arrays.copyOf(capacity, size);
+            cost = Arrays.copyOf(cost, size);
+        }
+        to[edgeCount] = toNode;
+        capacity[edgeCount] = cap;
+        cost[edgeCount] = edgeCost;
+        next[edgeCount] = head[from];
+        head[from] = edgeCount;
+        edgeCount++;
+    }
+}
@@ -0,0 +1,64 @@
+package vv.pms.allocation.internal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Picks owners for unowned projects so that work is spread evenly: always the professor with
+ * the fewest projects (ties by id), optionally never beyond
+ * {@code pms.allocation.max-projects-per-professor} (0 = no cap).
+ */
+@Component
+public class ProfessorLoadBalancer {
+
+    private final ProjectAllocationRepository repository;
+    private final int maxProjectsPerProfessor;
+
+    public ProfessorLoadBalancer(ProjectAllocationRepository repository,
+                                 @Value("${pms.allocation.max-projects-per-professor:0}") int maxProjectsPerProfessor) {
+        this.repository = repository;
+        this.maxProjectsPerProfessor = maxProjectsPerProfessor;
+    }
+
+    /** Starts a round of assignments over the given professors, seeded with their current load. */
+    public Round start(Collection<Long> professorIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : repository.countAllocationsPerProfessor()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        Round round = new Round(maxProjectsPerProfessor);
+        professorIds.forEach(id -> round.offer(id, counts.getOrDefault(id, 0L).intValue()));
+        return round;
+    }
+
+    /** Min-heap of professors keyed on project count; O(log P) per assignment. */
+    public static class Round {
+
+        private final int cap;
+        private final PriorityQueue<long[]> heap = new PriorityQueue<>(
+                Comparator.<long[]>comparingLong(e -> e[1]).thenComparingLong(e -> e[0]));
+
+        Round(int cap) {
+            this.cap = cap;
+        }
+
+        void offer(Long professorId, int projectCount) {
+            if (cap <= 0 || projectCount < cap) heap.add(new long[] { professorId, projectCount });
+        }
+
+        /** The least loaded professor, counted as having one more project; empty once everyone is at the cap. */
+        public Optional<Long> next() {
+            long[] least = heap.poll();
+            if (least == null) return Optional.empty();
+            offer(least[0], (int) least[1] + 1);
+            return Optional.of(least[0]);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package vv.pms.allocation.internal;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import vv.pms.allocation.ProjectAllocation;
 import java.util.Optional;
 import java.util.Set;
@@ -16,4 +18,21 @@ public interface ProjectAllocationRepository extends JpaRepository<ProjectAlloca
 
     // Finds all allocations for a specific professor
     List<ProjectAllocation> findByProfessorId(Long professorId);
+
+    // Reverse lookup through the student_id index; the team is fetched in the same query
+    @Query("SELECT DISTINCT a FROM ProjectAllocation a JOIN a.assignedStudentIds s "
+            + "LEFT JOIN FETCH a.assignedStudentIds WHERE s = :studentId")
+    List<ProjectAllocation> findByAssignedStudentId(@Param("studentId") Long studentId);
+
+    // Every allocation with its team, in one query instead of one collection load per row
+    @Query("SELECT DISTINCT a FROM ProjectAllocation a LEFT JOIN FETCH a.assignedStudentIds")
+    List<ProjectAllocation> findAllWithStudents();
+
+    // As findByProjectIdIn, with the teams fetched in the same query
+    @Query("SELECT DISTINCT a FROM ProjectAllocation a LEFT JOIN FETCH a.assignedStudentIds WHERE a.projectId IN :projectIds")
+    List<ProjectAllocation> findWithStudentsByProjectIdIn(@Param("projectIds") Set<Long> projectIds);
+
+    // Number of projects per professor as (professorId, count) rows, in one grouped query
+    @Query("SELECT a.professorId, COUNT(a) FROM ProjectAllocation a GROUP BY a.professorId")
+    List<Object[]> countAllocationsPerProfessor();
 }
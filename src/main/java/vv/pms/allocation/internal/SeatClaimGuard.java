@@ -0,0 +1,73 @@
+package vv.pms.allocation.internal;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serialises seat claims that touch the same project or student inside this process, and
+ * retries the few that still lose an optimistic version check (e.g. against another node).
+ *
+ * The locks are held around the whole transaction, so the next claimant always reads the
+ * committed seat count. Retries only happen when the guard owns the transaction; inside a
+ * caller's transaction a conflict is rethrown since that transaction is already doomed.
+ */
+@Component
+public class SeatClaimGuard {
+
+    static final int STRIPES = 64;
+    static final int MAX_ATTEMPTS = 3;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final TransactionTemplate transactionTemplate;
+
+    public SeatClaimGuard(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < STRIPES; i++) locks[i] = new ReentrantLock();
+    }
+
+    public <T> T claim(Long projectId, Long studentId, Supplier<T> work) {
+        return claimAll(List.of(projectId), List.of(studentId), work);
+    }
+
+    /** As {@link #claim}, for a batch touching several projects and students at once. */
+    public <T> T claimAll(Collection<Long> projectIds, Collection<Long> studentIds, Supplier<T> work) {
+        // Always lock stripes in index order so two claimants cannot deadlock
+        SortedSet<Integer> stripes = new TreeSet<>();
+        projectIds.forEach(id -> stripes.add(stripe(id)));
+        studentIds.forEach(id -> stripes.add(stripe(id)));
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                held.add(locks[stripe]);
+            }
+            boolean ownsTransaction = !TransactionSynchronizationManager.isActualTransactionActive();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return transactionTemplate.execute(status -> work.get());
+                } catch (OptimisticLockingFailureException e) {
+                    if (!ownsTransaction || attempt >= MAX_ATTEMPTS) throw e;
+                }
+            }
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) held.get(i).unlock();
+        }
+    }
+
+    private static int stripe(Long id) {
+        int h = Long.hashCode(id);
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,68 @@
+package vv.pms.allocation.internal;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Student-proposing deferred acceptance (Gale–Shapley) with project capacities.
+ * Each student proposes down their list at most once per entry, so a run is
+ * O(students x preferences x log capacity).
+ *
+ * Projects rank applicants by how highly the applicant ranked them, then by student id,
+ * so a project favours the students who want it most.
+ */
+public class StableMatcher {
+
+    private record Hold(Long studentId, int rank) {}
+
+    private static final Comparator<Hold> WORST_FIRST =
+            Comparator.comparingInt(Hold::rank).thenComparing(Hold::studentId).reversed();
+
+    /**
+     * @param preferences student id -> eligible project ids, most preferred first
+     * @param capacities  project id -> open seats
+     * @return student id -> matched project id, for every student that was placed
+     */
+    public Map<Long, Long> match(Map<Long, List<Long>> preferences, Map<Long, Integer> capacities) {
+        Map<Long, PriorityQueue<Hold>> held = new HashMap<>();
+        Map<Long, Integer> nextChoice = new HashMap<>();
+        Deque<Long> free = new ArrayDeque<>(preferences.keySet());
+
+        while (!free.isEmpty()) {
+            Long studentId = free.poll();
+            List<Long> choices = preferences.get(studentId);
+            int index = nextChoice.getOrDefault(studentId, 0);
+            if (index >= choices.size()) continue; // list exhausted, student stays unplaced
+            nextChoice.put(studentId, index + 1);
+
+            Long projectId = choices.get(index);
+            int capacity = capacities.getOrDefault(projectId, 0);
+            if (capacity <= 0) {
+                free.push(studentId);
+                continue;
+            }
+
+            PriorityQueue<Hold> queue = held.computeIfAbsent(projectId, k -> new PriorityQueue<>(WORST_FIRST));
+            Hold proposal = new Hold(studentId, index);
+            if (queue.size() < capacity) {
+                queue.add(proposal);
+            } else if (WORST_FIRST.compare(proposal, queue.peek()) > 0) {
+                // Proposal beats the worst held student, who is bumped back to the free list
+                free.push(queue.poll().studentId());
+                queue.add(proposal);
+            } else {
+                free.push(studentId);
+            }
+        }
+
+        Map<Long, Long> result = new LinkedHashMap<>();
+        held.forEach((projectId, queue) -> queue.forEach(h -> result.put(h.studentId(), projectId)));
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package vv.pms.allocation.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import vv.pms.allocation.StudentPreference;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StudentPreferenceRepository extends JpaRepository<StudentPreference, Long> {
+
+    Optional<StudentPreference> findByStudentId(Long studentId);
+
+    // Loads every ranking with its projects in a single query for the batch matcher
+    @Query("SELECT DISTINCT p FROM StudentPreference p LEFT JOIN FETCH p.rankedProjectIds")
+    List<StudentPreference> findAllWithRankings();
+}
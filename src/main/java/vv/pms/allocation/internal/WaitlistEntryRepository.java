@@ -0,0 +1,21 @@
+package vv.pms.allocation.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import vv.pms.allocation.WaitlistEntry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // FIFO queue for one project
+    List<WaitlistEntry> findByProjectIdOrderByIdAsc(Long projectId);
+
+    Optional<WaitlistEntry> findByProjectIdAndStudentId(Long projectId, Long studentId);
+
+    // Once a student has a seat, their other queue positions are dropped
+    void deleteByStudentId(Long studentId);
+
+    void deleteByStudentIdIn(Collection<Long> studentIds);
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.*;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 @Entity
 public class Availability {
@@ -15,15 +16,18 @@ public class Availability {
     private Long userId;
     private String userType; // "STUDENT" or "PROFESSOR"
 
-    // 5 Days (Mon-Fri) x 32 Time slots (15 mins, 8am-4pm)
-    // Stored as JSON string in DB, used as Boolean[][] in Java
-    @Convert(converter = MatrixConverter.class)
-    @Column(columnDefinition = "TEXT")
-    private Boolean[][] timeslots;
+    // days x bins on the SchedulingCalendar, stored bit-packed as one long per day
+    @Convert(converter = DayBitsConverter.class)
+    @Column(name = "timeslot_bits", length = DayBitsConverter.MAX_BYTES)
+    private AvailabilityGrid timeslots;
+
+    // JSON written before timeslot_bits existed; moved over on load and then cleared
+    @Column(name = "timeslots", columnDefinition = "TEXT")
+    private String legacyTimeslots;
 
     public Availability() {}
 
-    public Availability(Long userId, String userType, Boolean[][] timeslots) {
+    public Availability(Long userId, String userType, AvailabilityGrid timeslots) {
         this.userId = userId;
         this.userType = userType;
         this.timeslots = timeslots;
@@ -34,10 +38,47 @@ public class Availability {
     public void setUserId(Long userId) { this.userId = userId; }
     public String getUserType() { return userType; }
     public void setUserType(String userType) { this.userType = userType; }
-    public Boolean[][] getTimeslots() { return timeslots; }
-    public void setTimeslots(Boolean[][] timeslots) { this.timeslots = timeslots; }
+    public AvailabilityGrid getTimeslots() { return timeslots; }
+    public void setTimeslots(AvailabilityGrid timeslots) { this.timeslots = timeslots; }
+
+    @PostLoad
+    void migrateLegacyTimeslots() {
+        if (legacyTimeslots != null) {
+            if (timeslots == null) timeslots = AvailabilityGrid.of(new MatrixConverter().convertToEntityAttribute(legacyTimeslots));
+            legacyTimeslots = null;
+        }
+    }
+
+    // --- Bit-packed storage: [bins per day][one big-endian long per day] ---
+    @Converter
+    public static class DayBitsConverter implements AttributeConverter<AvailabilityGrid, byte[]> {
+        public static final int MAX_DAYS = 366;
+        public static final int MAX_BYTES = 1 + Long.BYTES * MAX_DAYS;
+
+        @Override
+        public byte[] convertToDatabaseColumn(AvailabilityGrid grid) {
+            if (grid == null) return null;
+            ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES * grid.days());
+            buffer.put((byte) grid.bins());
+            for (int d = 0; d < grid.days(); d++) buffer.putLong(grid.mask(d));
+            return buffer.array();
+        }
+
+        @Override
+        public AvailabilityGrid convertToEntityAttribute(byte[] dbData) {
+            if (dbData == null) return null;
+            if (dbData.length == 0 || (dbData.length - 1) % Long.BYTES != 0) {
+                throw new IllegalArgumentException("Malformed matrix bits of length " + dbData.length);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(dbData);
+            int bins = buffer.get();
+            long[] masks = new long[(dbData.length - 1) / Long.BYTES];
+            for (int d = 0; d < masks.length; d++) masks[d] = buffer.getLong();
+            return AvailabilityGrid.ofMasks(bins, masks);
+        }
+    }
 
-    // --- Converter for Database JSON storage ---
+    // --- Converter for the legacy JSON storage ---
     @Converter
     public static class MatrixConverter implements AttributeConverter<Boolean[][], String> {
         private static final ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,10 @@
+package vv.pms.availability;
+
+/** Counters of the decoded availability cache since startup; {@code size} is the current entry count. */
+public record AvailabilityCacheStats(long hits, long misses, long evictions, int size) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
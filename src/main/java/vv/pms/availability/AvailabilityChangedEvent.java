@@ -0,0 +1,7 @@
+package vv.pms.availability;
+
+/**
+ * Published whenever a user's availability is updated, so other modules (e.g. presentation)
+ * can react without AvailabilityService depending on them.
+ */
+public record AvailabilityChangedEvent(Long userId, String userType) {}
@@ -0,0 +1,223 @@
+package vv.pms.availability;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable days x bins availability: one {@code long} per day, bit {@code t} set when time bin
+ * {@code t} is free. A 5 x 16 week is a single 40-byte array instead of 80 boxed references, and
+ * combining grids is a few word operations per day.
+ *
+ * At most {@link #MAX_BINS} bins per day. Operations on two grids of different shape work on the
+ * common days and bins; use {@link #fit(int, int)} to lay a grid out on a given shape first.
+ */
+public final class AvailabilityGrid {
+
+    public static final int MAX_BINS = Long.SIZE;
+
+    /** {@code bins} consecutive bins starting at {@code startBin} on {@code day}. */
+    public record Window(int day, int startBin, int bins) {}
+
+    private final long[] masks;
+    private final int bins;
+
+    private AvailabilityGrid(long[] masks, int bins) {
+        this.masks = masks;
+        this.bins = bins;
+    }
+
+    public static AvailabilityGrid empty(int days, int bins) {
+        return new AvailabilityGrid(new long[days], checkBins(bins));
+    }
+
+    public static AvailabilityGrid full(int days, int bins) {
+        long[] masks = new long[days];
+        Arrays.fill(masks, range(0, checkBins(bins)));
+        return new AvailabilityGrid(masks, bins);
+    }
+
+    /** One mask per day; bits at or above {@code bins} are dropped. */
+    public static AvailabilityGrid ofMasks(int bins, long... masks) {
+        long[] copy = masks.clone();
+        long valid = range(0, checkBins(bins));
+        for (int d = 0; d < copy.length; d++) copy[d] &= valid;
+        return new AvailabilityGrid(copy, bins);
+    }
+
+    /** Packs a Boolean matrix as bound from forms; the first row sets the width, null cells are not free. */
+    public static AvailabilityGrid of(Boolean[][] matrix) {
+        if (matrix == null) return empty(0, 0);
+        int bins = matrix.length == 0 || matrix[0] == null ? 0 : checkBins(matrix[0].length);
+        long[] masks = new long[matrix.length];
+        for (int d = 0; d < matrix.length; d++) {
+            Boolean[] row = matrix[d];
+            for (int t = 0; row != null && t < Math.min(bins, row.length); t++) {
+                if (Boolean.TRUE.equals(row[t])) masks[d] |= 1L << t;
+            }
+        }
+        return new AvailabilityGrid(masks, bins);
+    }
+
+    public int days() {
+        return masks.length;
+    }
+
+    public int bins() {
+        return bins;
+    }
+
+    /** Free bins of one day; 0 for days outside the grid. */
+    public long mask(int day) {
+        return day >= 0 && day < masks.length ? masks[day] : 0L;
+    }
+
+    /** Copy of the per-day masks. */
+    public long[] masks() {
+        return masks.clone();
+    }
+
+    public boolean isFree(int day, int bin) {
+        return bin >= 0 && bin < bins && (mask(day) >>> bin & 1L) != 0;
+    }
+
+    /** Whether {@code length} bins from {@code startBin} on {@code day} are all free. */
+    public boolean isFree(int day, int startBin, int length) {
+        if (startBin < 0 || length <= 0 || startBin + length > bins) return false;
+        long window = range(startBin, length);
+        return (mask(day) & window) == window;
+    }
+
+    public AvailabilityGrid with(int day, int bin, boolean free) {
+        if (day < 0 || day >= masks.length || bin < 0 || bin >= bins) {
+            throw new IndexOutOfBoundsException("No bin " + bin + " on day " + day + " in a " + masks.length + " x " + bins + " grid");
+        }
+        long[] copy = masks.clone();
+        copy[day] = free ? copy[day] | 1L << bin : copy[day] & ~(1L << bin);
+        return new AvailabilityGrid(copy, bins);
+    }
+
+    /** Bins free in both grids, on the shape common to both. */
+    public AvailabilityGrid and(AvailabilityGrid other) {
+        long[] result = new long[Math.min(masks.length, other.masks.length)];
+        for (int d = 0; d < result.length; d++) result[d] = masks[d] & other.masks[d];
+        return new AvailabilityGrid(result, Math.min(bins, other.bins));
+    }
+
+    /** Bins free in either grid, on the shape of this grid. */
+    public AvailabilityGrid or(AvailabilityGrid other) {
+        long[] result = masks.clone();
+        long valid = range(0, bins);
+        for (int d = 0; d < result.length && d < other.masks.length; d++) result[d] |= other.masks[d] & valid;
+        return new AvailabilityGrid(result, bins);
+    }
+
+    /** Lays the grid out on {@code days x bins}: cells outside it are dropped, missing cells are not free. */
+    public AvailabilityGrid fit(int days, int bins) {
+        if (days == masks.length && bins == this.bins) return this;
+        long[] result = new long[days];
+        long valid = range(0, checkBins(bins));
+        for (int d = 0; d < days && d < masks.length; d++) result[d] = masks[d] & valid;
+        return new AvailabilityGrid(result, bins);
+    }
+
+    public int popcount() {
+        int count = 0;
+        for (long mask : masks) count += Long.bitCount(mask);
+        return count;
+    }
+
+    public int popcount(int day) {
+        return Long.bitCount(mask(day));
+    }
+
+    /** Earliest window of {@code length} consecutive free bins, scanning day by day. */
+    public Optional<Window> firstFit(int length) {
+        if (length <= 0 || length > bins) return Optional.empty();
+        for (int d = 0; d < masks.length; d++) {
+            long starts = windowStarts(masks[d], length);
+            if (starts != 0) return Optional.of(new Window(d, Long.numberOfTrailingZeros(starts), length));
+        }
+        return Optional.empty();
+    }
+
+    /** Maximal runs of free bins, in day and bin order. */
+    public List<Window> freeRanges() {
+        List<Window> ranges = new ArrayList<>();
+        for (int d = 0; d < masks.length; d++) {
+            long rest = masks[d];
+            while (rest != 0) {
+                int start = Long.numberOfTrailingZeros(rest);
+                int length = Long.numberOfTrailingZeros(~(rest >>> start));
+                ranges.add(new Window(d, start, length));
+                rest &= ~range(start, length);
+            }
+        }
+        return ranges;
+    }
+
+    /** Boxed copy for form binding and templates. */
+    public Boolean[][] toMatrix() {
+        Boolean[][] matrix = new Boolean[masks.length][bins];
+        for (int d = 0; d < masks.length; d++) {
+            for (int t = 0; t < bins; t++) {
+                matrix[d][t] = (masks[d] >>> t & 1L) != 0 ? Boolean.TRUE : Boolean.FALSE;
+            }
+        }
+        return matrix;
+    }
+
+    /** Bits {@code start .. start+length-1}. */
+    public static long range(int start, int length) {
+        if (length <= 0) return 0L;
+        long bits = length >= 64 ? -1L : (1L << length) - 1;
+        return bits << start;
+    }
+
+    /**
+     * Start bins at which {@code length} consecutive free bins begin: bit t of the result is
+     * set iff bits t .. t+length-1 of {@code free} are all set.
+     *
+     * Runs are extended by doubling (after each step bit t means "the next {@code covered} bins
+     * are free"), so this is O(log length) word operations regardless of the window length.
+     */
+    public static long windowStarts(long free, int length) {
+        if (length <= 0) return free;
+        long starts = free;
+        int covered = 1;
+        while (covered < length) {
+            int shift = Math.min(covered, length - covered);
+            starts &= starts >>> shift;
+            covered += shift;
+        }
+        return starts;
+    }
+
+    private static int checkBins(int bins) {
+        if (bins < 0 || bins > MAX_BINS) {
+            throw new IllegalArgumentException("A grid holds 0 to " + MAX_BINS + " bins per day, got " + bins);
+        }
+        return bins;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AvailabilityGrid other && bins == other.bins && Arrays.equals(masks, other.masks);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(masks) + bins;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("AvailabilityGrid[").append(masks.length).append('x').append(bins);
+        for (long mask : masks) {
+            text.append(' ');
+            for (int t = 0; t < bins; t++) text.append((mask >>> t & 1L) != 0 ? '1' : '0');
+        }
+        return text.append(']').toString();
+    }
+}
@@ -1,17 +1,37 @@
 package vv.pms.availability;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import vv.pms.availability.internal.AvailabilityGridCache;
 import vv.pms.availability.internal.AvailabilityRepository;
+import vv.pms.common.BatchMigration;
+
+import java.util.*;
 
 @Service
 @Transactional
 public class AvailabilityService {
 
     private final AvailabilityRepository repository;
+    private final SchedulingCalendar calendar;
+    private final ApplicationEventPublisher events;
+    private final AvailabilityGridCache cache;
+    private final BatchMigration batchMigration;
 
-    public AvailabilityService(AvailabilityRepository repository) {
+    public AvailabilityService(AvailabilityRepository repository,
+                               SchedulingCalendar calendar,
+                               ApplicationEventPublisher events,
+                               AvailabilityGridCache cache,
+                               BatchMigration batchMigration) {
         this.repository = repository;
+        this.calendar = calendar;
+        this.events = events;
+        this.cache = cache;
+        this.batchMigration = batchMigration;
     }
 
     public Availability getAvailability(Long userId, String userType) {
@@ -19,21 +39,64 @@ public class AvailabilityService {
                 .orElseGet(() -> createDefault(userId, userType));
     }
 
-    public void updateAvailability(Long userId, String userType, Boolean[][] timeslots) {
+    /**
+     * The user's stored grid, or an all-busy grid on the calendar when none is stored (read-only:
+     * no default row is created). Served from the decoded grid cache.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityGrid getGrid(Long userId, String userType) {
+        AvailabilityGrid grid = findGrids(List.of(userId), userType).get(userId);
+        return grid != null ? grid : calendar.grid(false);
+    }
+
+    /**
+     * Stored grids for many users of one type, keyed by user id; users without a stored row are
+     * absent. Cache misses are loaded together in a single query.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, AvailabilityGrid> findGrids(Collection<Long> userIds, String userType) {
+        Map<Long, AvailabilityGrid> grids = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long userId : userIds) {
+            cache.get(new AvailabilityGridCache.Key(userId, userType)).ifPresentOrElse(
+                    entry -> { if (entry.grid() != null) grids.put(userId, entry.grid()); },
+                    () -> missing.add(userId));
+        }
+        if (missing.isEmpty()) return grids;
+
+        long generation = cache.generation();
+        Map<Long, AvailabilityGrid> loaded = new HashMap<>();
+        for (Availability availability : repository.findByUserTypeAndUserIdIn(userType, missing)) {
+            loaded.putIfAbsent(availability.getUserId(), availability.getTimeslots());
+        }
+        for (Long userId : missing) {
+            cache.put(new AvailabilityGridCache.Key(userId, userType), loaded.get(userId), generation);
+        }
+        grids.putAll(loaded);
+        return grids;
+    }
+
+    public AvailabilityCacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    public void updateAvailability(Long userId, String userType, AvailabilityGrid timeslots) {
         Availability availability = getAvailability(userId, userType);
         availability.setTimeslots(timeslots);
         repository.save(availability);
+        cache.evictAfterWrite(new AvailabilityGridCache.Key(userId, userType));
+        events.publishEvent(new AvailabilityChangedEvent(userId, userType));
     }
 
-    private Availability createDefault(Long userId, String userType) {
-        Boolean[][] matrix = new Boolean[5][32];
-        for(int i=0; i<5; i++){
-            for(int j=0; j<32; j++){
-                matrix[i][j] = false;
-            }
-        }
+    /** Moves rows still holding JSON timeslots into the bit-packed column; see {@link Availability}. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void migrateLegacyTimeslots() {
+        batchMigration.run(repository::findTop200ByLegacyTimeslotsIsNotNull, repository::saveAll);
+    }
 
-        Availability newAvail = new Availability(userId, userType, matrix);
+    private Availability createDefault(Long userId, String userType) {
+        Availability newAvail = new Availability(userId, userType, calendar.grid(false));
         return repository.save(newAvail);
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package vv.pms.availability;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The grid every availability matrix, room and presentation slot is laid out on: one row per
+ * scheduling day and one column per time bin. A day holds at most 64 bins so it packs into a
+ * single {@code long}.
+ *
+ * Days are the weekdays between {@code pms.calendar.start-date} and {@code pms.calendar.end-date};
+ * without dates the grid is a generic Monday–Friday week. Bins of {@code pms.calendar.bin-minutes}
+ * run from {@code pms.calendar.day-start} to {@code pms.calendar.day-end}.
+ */
+@Component
+public class SchedulingCalendar {
+
+    public static final int MAX_BINS = 64;
+
+    private final List<LocalDate> dates;
+    private final List<String> dayNames;
+    private final LocalTime dayStart;
+    private final int binMinutes;
+    private final int bins;
+
+    @Autowired
+    public SchedulingCalendar(@Value("${pms.calendar.start-date:}") String startDate,
+                              @Value("${pms.calendar.end-date:}") String endDate,
+                              @Value("${pms.calendar.day-start:08:00}") String dayStart,
+                              @Value("${pms.calendar.day-end:16:00}") String dayEnd,
+                              @Value("${pms.calendar.bin-minutes:30}") int binMinutes) {
+        this(startDate.isBlank() ? null : LocalDate.parse(startDate),
+                endDate.isBlank() ? null : LocalDate.parse(endDate),
+                LocalTime.parse(dayStart), LocalTime.parse(dayEnd), binMinutes);
+    }
+
+    public SchedulingCalendar(LocalDate startDate, LocalDate endDate,
+                              LocalTime dayStart, LocalTime dayEnd, int binMinutes) {
+        if (binMinutes <= 0) {
+            throw new IllegalArgumentException("Calendar bin size must be positive");
+        }
+        int minutes = dayEnd.toSecondOfDay() / 60 - dayStart.toSecondOfDay() / 60;
+        if (minutes <= 0 || minutes % binMinutes != 0) {
+            throw new IllegalArgumentException("Calendar day must be a whole number of " + binMinutes + "-minute bins");
+        }
+        if (minutes / binMinutes > MAX_BINS) {
+            throw new IllegalArgumentException("Calendar day cannot hold more than " + MAX_BINS + " bins");
+        }
+        this.dayStart = dayStart;
+        this.binMinutes = binMinutes;
+        this.bins = minutes / binMinutes;
+
+        this.dates = new ArrayList<>();
+        this.dayNames = new ArrayList<>();
+        if (startDate == null || endDate == null) {
+            for (int day = DayOfWeek.MONDAY.getValue(); day <= DayOfWeek.FRIDAY.getValue(); day++) {
+                dayNames.add(DayOfWeek.of(day).getDisplayName(TextStyle.FULL, Locale.ENGLISH));
+            }
+        } else {
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) continue;
+                dates.add(date);
+                dayNames.add(date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + date);
+            }
+            if (dates.isEmpty()) {
+                throw new IllegalArgumentException("Calendar date range contains no weekdays");
+            }
+        }
+    }
+
+    public int days() { return dayNames.size(); }
+    public int bins() { return bins; }
+    public int binMinutes() { return binMinutes; }
+
+    public String dayName(int dayIndex) {
+        return dayNames.get(dayIndex);
+    }
+
+    public List<String> dayNames() {
+        return List.copyOf(dayNames);
+    }
+
+    /** Calendar date of the day, or null for the generic week. */
+    public LocalDate dateOf(int dayIndex) {
+        return dates.isEmpty() ? null : dates.get(dayIndex);
+    }
+
+    public LocalTime startOf(int binIndex) {
+        return dayStart.plusMinutes((long) binIndex * binMinutes);
+    }
+
+    /** e.g. "Monday 08:00-09:00". */
+    public String describe(int dayIndex, int startBinIndex, int durationBins) {
+        return String.format("%s %s-%s", dayName(dayIndex), startOf(startBinIndex), startOf(startBinIndex + durationBins));
+    }
+
+    /** Column labels, e.g. "08:00-08:30". */
+    public List<String> binLabels() {
+        List<String> labels = new ArrayList<>(bins);
+        for (int t = 0; t < bins; t++) {
+            labels.add(startOf(t) + "-" + startOf(t + 1));
+        }
+        return labels;
+    }
+
+    public AvailabilityGrid grid(boolean free) {
+        return free ? AvailabilityGrid.full(days(), bins) : AvailabilityGrid.empty(days(), bins);
+    }
+
+    /** Lays a stored grid out on this calendar: cells outside it are dropped, missing cells are not free. */
+    public AvailabilityGrid fit(AvailabilityGrid grid) {
+        return grid == null ? grid(false) : grid.fit(days(), bins);
+    }
+}
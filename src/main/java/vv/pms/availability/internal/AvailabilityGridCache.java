@@ -0,0 +1,119 @@
+package vv.pms.availability.internal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vv.pms.availability.AvailabilityCacheStats;
+import vv.pms.availability.AvailabilityGrid;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decoded availability grids by (userId, userType), least recently used first out once
+ * {@code maxEntries} is reached and dropped {@code ttl} after loading. Users without stored
+ * availability are cached too, so repeated lookups for them skip the database as well.
+ *
+ * Loads happen outside the lock, so {@link #put} only keeps a value when no {@link #evict}
+ * happened since the caller took its {@link #generation()}; a stale read can never overwrite
+ * an update.
+ */
+@Component
+public class AvailabilityGridCache {
+
+    public record Key(Long userId, String userType) {}
+
+    /** {@code grid} is null when the user has no stored availability. */
+    public record Entry(AvailabilityGrid grid, Instant expiresAt) {}
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<Key, Entry> entries;
+
+    private long generation = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    @Autowired
+    public AvailabilityGridCache(@Value("${pms.availability.cache.max-entries:4096}") int maxEntries,
+                                 @Value("${pms.availability.cache.ttl-seconds:300}") long ttlSeconds) {
+        this(maxEntries, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
+    public AvailabilityGridCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= AvailabilityGridCache.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    public synchronized Optional<Entry> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt().isBefore(clock.instant())) {
+            entries.remove(key);
+            evictions++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(entry);
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /** Caches a grid loaded at {@code loadedAt}, unless an eviction happened since. */
+    public synchronized void put(Key key, AvailabilityGrid grid, long loadedAt) {
+        if (maxEntries <= 0 || loadedAt != generation) return;
+        entries.put(key, new Entry(grid, clock.instant().plus(ttl)));
+    }
+
+    public synchronized void evict(Key key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Evicts now so the writing transaction reads its own write, and again once it completes so
+     * nothing cached in between (the new grid before a rollback, or the old one before the commit)
+     * survives.
+     */
+    public void evictAfterWrite(Key key) {
+        evict(key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(key);
+            }
+        });
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized AvailabilityCacheStats stats() {
+        return new AvailabilityCacheStats(hits, misses, evictions, entries.size());
+    }
+}
@@ -0,0 +1,60 @@
+package vv.pms.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Holds the writes a transaction makes to an in-memory index until it completes. Each
+ * transaction gets its own buffer, bound to it on first use and seen by nobody else; after a
+ * commit the buffer is handed to {@code onCommit}, after a rollback to {@code onRollback}.
+ *
+ * Outside a transaction there is no buffer: callers apply their writes directly.
+ */
+public final class AfterCommitBuffer<B> {
+
+    private final Supplier<B> factory;
+    private final Consumer<B> onCommit;
+    private final Consumer<B> onRollback;
+
+    public AfterCommitBuffer(Supplier<B> factory, Consumer<B> onCommit, Consumer<B> onRollback) {
+        this.factory = factory;
+        this.onCommit = onCommit;
+        this.onRollback = onRollback;
+    }
+
+    public static boolean inTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    /** The current transaction's buffer, or null outside a transaction or before its first use. */
+    @SuppressWarnings("unchecked")
+    public B current() {
+        if (!inTransaction()) return null;
+        return (B) TransactionSynchronizationManager.getResource(this);
+    }
+
+    /** The current transaction's buffer, opened on first use; null outside a transaction. */
+    public B open() {
+        if (!inTransaction()) return null;
+        B buffer = current();
+        if (buffer != null) return buffer;
+        B created = factory.get();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onCommit.accept(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(AfterCommitBuffer.this);
+                if (status != STATUS_COMMITTED) onRollback.accept(created);
+            }
+        });
+        return created;
+    }
+}
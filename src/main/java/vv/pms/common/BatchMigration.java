@@ -0,0 +1,42 @@
+package vv.pms.common;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs a one-off data migration in batches, each in a transaction of its own: a batch is loaded,
+ * migrated and committed before the next one is loaded. A large table is never held in one
+ * transaction or one persistence context, and a failure keeps the batches committed before it.
+ *
+ * {@code nextBatch} has to stop returning a row once it is migrated, or the migration never ends.
+ */
+@Component
+public class BatchMigration {
+
+    private final TransactionTemplate batchTransaction;
+
+    public BatchMigration(PlatformTransactionManager transactionManager) {
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Migrates batches until {@code nextBatch} comes back empty; returns the number of rows migrated. */
+    public <T> int run(Supplier<List<T>> nextBatch, Consumer<List<T>> migrate) {
+        int migrated = 0;
+        while (true) {
+            Integer size = batchTransaction.execute(status -> {
+                List<T> batch = nextBatch.get();
+                if (!batch.isEmpty()) migrate.accept(batch);
+                return batch.size();
+            });
+            if (size == null || size == 0) return migrated;
+            migrated += size;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package vv.pms.job;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A background run and its live progress. Written by the worker thread, read by pollers.
+ */
+public class Job implements JobProgress {
+
+    private final UUID id = UUID.randomUUID();
+    private final String key;
+    private final String variant;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile String phase = "Queued";
+    private volatile long phaseTotal;
+    private volatile long phaseProcessed;
+    private volatile long phaseStartedNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public Job(String key) {
+        this(key, null);
+    }
+
+    public Job(String key, String variant) {
+        this.key = key;
+        this.variant = variant;
+    }
+
+    @Override
+    public synchronized void phase(String name, long totalItems) {
+        phase = name;
+        phaseTotal = Math.max(0, totalItems);
+        phaseProcessed = 0;
+        phaseStartedNanos = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void advance(long items) {
+        phaseProcessed = Math.min(phaseTotal > 0 ? phaseTotal : Long.MAX_VALUE, phaseProcessed + items);
+    }
+
+    synchronized void started() {
+        status = JobStatus.RUNNING;
+        startedAt = LocalDateTime.now();
+        phase("Starting", 0);
+    }
+
+    synchronized void succeeded() {
+        status = JobStatus.SUCCEEDED;
+        phase = "Done";
+        finishedAt = LocalDateTime.now();
+    }
+
+    synchronized void failed(Throwable cause) {
+        status = JobStatus.FAILED;
+        error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        finishedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Remaining time of the current phase, extrapolated from its rate so far; null when the
+     * phase has no item count or nothing has been processed yet.
+     */
+    public Long getEtaSeconds() {
+        long total = phaseTotal;
+        long done = phaseProcessed;
+        if (status != JobStatus.RUNNING || total == 0 || done == 0) return null;
+        long elapsed = System.nanoTime() - phaseStartedNanos;
+        return Duration.ofNanos(elapsed / done * (total - done)).toSeconds();
+    }
+
+    // --- Getters ---
+    public UUID getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getVariant() {
+        return variant;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public long getItemsTotal() {
+        return phaseTotal;
+    }
+
+    public long getItemsProcessed() {
+        return phaseProcessed;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
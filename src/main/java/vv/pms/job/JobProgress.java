@@ -0,0 +1,22 @@
+package vv.pms.job;
+
+/**
+ * Callback a long-running operation uses to report where it is. Implementations must be cheap
+ * and thread-safe; {@link #NONE} is used when the operation runs inline.
+ */
+public interface JobProgress {
+
+    JobProgress NONE = new JobProgress() {
+        @Override
+        public void phase(String name, long totalItems) {}
+
+        @Override
+        public void advance(long items) {}
+    };
+
+    /** Starts a new phase with the given number of items (0 if unknown). */
+    void phase(String name, long totalItems);
+
+    /** Marks items of the current phase as done. */
+    void advance(long items);
+}
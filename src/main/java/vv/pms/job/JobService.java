@@ -0,0 +1,144 @@
+package vv.pms.job;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs long operations (allocation, presentation scheduling) off the request thread on a
+ * bounded pool. Submitting a key that is already queued or running returns the existing job
+ * instead of starting a second one, unless the two ask for different variants of the work (e.g.
+ * allocation modes), which is a conflict. A full queue rejects the submission.
+ */
+@Service
+public class JobService {
+
+    private static final int MAX_FINISHED_JOBS = 50;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, Job> jobs = new LinkedHashMap<>();
+    private final Map<String, Job> activeByKey = new HashMap<>();
+
+    public JobService(@Value("${pms.jobs.threads:2}") int threads,
+                      @Value("${pms.jobs.queue-capacity:8}") int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "pms-job-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues {@code work} under {@code key}. If a job with the same key is still active it is
+     * returned as-is (the submissions are merged).
+     *
+     * @throws JobRejectedException when the queue is full
+     */
+    public synchronized Job submit(String key, Consumer<JobProgress> work) {
+        return submit(key, null, work);
+    }
+
+    /**
+     * As {@link #submit(String, Consumer)}, but only merges with an active job of the same
+     * {@code variant}.
+     *
+     * @throws JobConflictException when the active job under {@code key} is another variant
+     */
+    public synchronized Job submit(String key, String variant, Consumer<JobProgress> work) {
+        Job active = activeByKey.get(key);
+        if (active != null) {
+            if (Objects.equals(active.getVariant(), variant)) return active;
+            throw new JobConflictException(active, "A " + active.getVariant() + " run is already in progress; wait for it to finish.");
+        }
+
+        Job job = new Job(key, variant);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            throw new JobRejectedException("Too many background jobs queued; try again shortly.");
+        }
+        jobs.put(job.getId(), job);
+        activeByKey.put(key, job);
+        return job;
+    }
+
+    public synchronized Optional<Job> findJob(UUID id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /** Known jobs, newest first. */
+    public synchronized List<Job> findJobs() {
+        List<Job> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparing(Job::getSubmittedAt).reversed());
+        return all;
+    }
+
+    private void run(Job job, Consumer<JobProgress> work) {
+        job.started();
+        Throwable failure = null;
+        try {
+            work.accept(job);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+        finished(job, failure);
+    }
+
+    // Status and key release change together, so a finished job never blocks a new submission
+    private synchronized void finished(Job job, Throwable failure) {
+        if (failure == null) job.succeeded();
+        else job.failed(failure);
+        activeByKey.remove(job.getKey(), job);
+
+        // Keep a bounded history of finished jobs for polling
+        Collection<Job> finished = jobs.values().stream()
+                .filter(j -> !j.getStatus().isActive())
+                .toList();
+        int excess = finished.size() - MAX_FINISHED_JOBS;
+        for (Job old : finished) {
+            if (excess-- <= 0) break;
+            jobs.remove(old.getId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static class JobRejectedException extends RuntimeException {
+        public JobRejectedException(String message) { super(message); }
+    }
+
+    public static class JobConflictException extends RuntimeException {
+        private final Job active;
+
+        public JobConflictException(Job active, String message) {
+            super(message);
+            this.active = active;
+        }
+
+        public Job getActive() { return active; }
+    }
+}
@@ -0,0 +1,244 @@
+package vv.pms.presentation;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vv.pms.allocation.AllocationChangedEvent;
+import vv.pms.allocation.AllocationService;
+import vv.pms.allocation.ProjectAllocation;
+import vv.pms.availability.SchedulingCalendar;
+import vv.pms.presentation.internal.CalendarFeedToken;
+import vv.pms.presentation.internal.CalendarFeedTokenRepository;
+import vv.pms.presentation.internal.IcsWriter;
+import vv.pms.presentation.internal.PresentationSlotRepository;
+import vv.pms.presentation.internal.RoomOccupancyIndex;
+import vv.pms.presentation.internal.RoomRepository;
+import vv.pms.professor.Professor;
+import vv.pms.professor.ProfessorService;
+import vv.pms.project.Project;
+import vv.pms.project.ProjectChangedEvent;
+import vv.pms.project.ProjectService;
+import vv.pms.student.Student;
+import vv.pms.student.StudentService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * iCalendar (.ics) feeds of the presentation schedule: everything, one room, or one person.
+ *
+ * Slots are read through a database cursor and written in chunks, so memory stays flat however
+ * large the schedule is. {@link #scheduleETag()} only changes when the schedule, a team or a
+ * project title does, which lets polling calendar clients revalidate without a feed being
+ * rendered. A person's feed is only served with their feed token, since calendar clients
+ * subscribe by URL and cannot carry a login session.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PresentationCalendarService {
+
+    public enum Feed { ALL, ROOM, PROFESSOR, STUDENT }
+
+    private static final int CHUNK = 200;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final PresentationSlotRepository slotRepository;
+    private final RoomRepository roomRepository;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final AllocationService allocationService;
+    private final ProjectService projectService;
+    private final ProfessorService professorService;
+    private final StudentService studentService;
+    private final CalendarFeedTokenRepository tokenRepository;
+    private final SchedulingCalendar calendar;
+    private final EntityManager entityManager;
+
+    // Without configured dates the grid is a generic week, exported as weekly events from a fixed
+    // Monday so the same schedule always renders the same feed
+    private final LocalDate genericWeekStart;
+
+    public PresentationCalendarService(PresentationSlotRepository slotRepository,
+                                       RoomRepository roomRepository,
+                                       RoomOccupancyIndex occupancyIndex,
+                                       AllocationService allocationService,
+                                       ProjectService projectService,
+                                       ProfessorService professorService,
+                                       StudentService studentService,
+                                       CalendarFeedTokenRepository tokenRepository,
+                                       SchedulingCalendar calendar,
+                                       EntityManager entityManager,
+                                       @Value("${pms.calendar.generic-week-start:2024-01-01}") String genericWeekStart) {
+        this.genericWeekStart = LocalDate.parse(genericWeekStart);
+        if (this.genericWeekStart.getDayOfWeek() != DayOfWeek.MONDAY) {
+            throw new IllegalArgumentException("Generic calendar week must start on a Monday");
+        }
+        this.slotRepository = slotRepository;
+        this.roomRepository = roomRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.allocationService = allocationService;
+        this.projectService = projectService;
+        this.professorService = professorService;
+        this.studentService = studentService;
+        this.tokenRepository = tokenRepository;
+        this.calendar = calendar;
+        this.entityManager = entityManager;
+    }
+
+    /** Strong ETag of the current schedule version. */
+    public String scheduleETag() {
+        return "\"schedule-" + occupancyIndex.version() + "\"";
+    }
+
+    /** The token for a person's feed ({@code PROFESSOR} or {@code STUDENT}), issued on first request. */
+    @Transactional
+    public String feedToken(Feed feed, Long id) {
+        String userType = personal(feed);
+        return tokenRepository.findByUserTypeAndUserId(userType, id)
+                .orElseGet(() -> tokenRepository.save(new CalendarFeedToken(userType, id, newToken())))
+                .getToken();
+    }
+
+    /** Whether {@code token} unlocks the person's feed; a person without a token has none that does. */
+    public boolean isFeedToken(Feed feed, Long id, String token) {
+        if (token == null) return false;
+        return tokenRepository.findByUserTypeAndUserId(personal(feed), id)
+                .map(t -> MessageDigest.isEqual(t.getToken().getBytes(StandardCharsets.UTF_8),
+                        token.getBytes(StandardCharsets.UTF_8)))
+                .orElse(false);
+    }
+
+    private static String personal(Feed feed) {
+        if (feed != Feed.PROFESSOR && feed != Feed.STUDENT) {
+            throw new IllegalArgumentException("Only professor and student feeds have tokens");
+        }
+        return feed.name();
+    }
+
+    // 256 random bits, URL-safe
+    private static String newToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Teams decide who sees a presentation in their feed and are listed in its description;
+    // titles are shown too. Either change moves the schedule version once it commits.
+    @EventListener
+    public void onAllocationChanged(AllocationChangedEvent event) {
+        occupancyIndex.afterWrite();
+    }
+
+    @EventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        occupancyIndex.afterWrite();
+    }
+
+    /** Writes the feed to {@code out}; an unknown room or person yields an empty calendar. */
+    public void writeCalendar(Feed feed, Long id, OutputStream out) {
+        Instant stamp = occupancyIndex.changedAt();
+        Map<Long, String> roomNames = roomRepository.findAll().stream()
+                .collect(Collectors.toMap(Room::getId, Room::getName));
+        IcsWriter ics = new IcsWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        try (Stream<PresentationSlot> slots = open(feed, id)) {
+            ics.beginCalendar(feedName(feed, id, roomNames));
+            Iterator<PresentationSlot> cursor = slots.iterator();
+            List<PresentationSlot> chunk = new ArrayList<>(CHUNK);
+            while (cursor.hasNext()) {
+                chunk.add(cursor.next());
+                if (chunk.size() == CHUNK || !cursor.hasNext()) {
+                    writeChunk(ics, chunk, roomNames, stamp);
+                    // Slots already written are not needed again; keep the persistence context small
+                    chunk.forEach(entityManager::detach);
+                    chunk.clear();
+                }
+            }
+            ics.endCalendar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Stream<PresentationSlot> open(Feed feed, Long id) {
+        return switch (feed) {
+            case ALL -> slotRepository.streamAll();
+            case ROOM -> slotRepository.streamByRoomId(id);
+            case PROFESSOR -> {
+                Set<Long> projectIds = allocationService.findAllocationsByProfessorId(id).stream()
+                        .map(ProjectAllocation::getProjectId)
+                        .collect(Collectors.toSet());
+                yield projectIds.isEmpty() ? Stream.empty() : slotRepository.streamByProjectIdIn(projectIds);
+            }
+            case STUDENT -> allocationService.findAllocationByStudentId(id)
+                    .map(a -> slotRepository.streamByProjectIdIn(List.of(a.getProjectId())))
+                    .orElseGet(Stream::empty);
+        };
+    }
+
+    private String feedName(Feed feed, Long id, Map<Long, String> roomNames) {
+        return switch (feed) {
+            case ALL -> "Presentations";
+            case ROOM -> "Presentations - " + roomNames.getOrDefault(id, "room " + id);
+            case PROFESSOR -> "Presentations - " + professorService.findProfessorById(id).map(Professor::getName).orElse("professor " + id);
+            case STUDENT -> "Presentations - " + studentService.findStudentById(id).map(Student::getName).orElse("student " + id);
+        };
+    }
+
+    // Titles and names for one chunk are looked up with one query per kind
+    private void writeChunk(IcsWriter ics, List<PresentationSlot> chunk, Map<Long, String> roomNames,
+                            Instant stamp) throws IOException {
+        Set<Long> projectIds = chunk.stream().map(PresentationSlot::getProjectId).collect(Collectors.toSet());
+        Map<Long, ProjectAllocation> allocations = allocationService.findAllocationsWithStudentsByProjectIds(projectIds);
+        Map<Long, Project> projects = projectService.findProjectsByIds(projectIds).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        Set<Long> professorIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        allocations.values().forEach(a -> {
+            if (a.getProfessorId() != null) professorIds.add(a.getProfessorId());
+            studentIds.addAll(a.getAssignedStudentIds());
+        });
+        Map<Long, Professor> professors = professorService.findByIds(professorIds);
+        Map<Long, Student> students = studentService.findByIds(studentIds);
+
+        boolean weekly = calendar.dateOf(0) == null;
+        for (PresentationSlot slot : chunk) {
+            if (slot.getDayIndex() >= calendar.days()) continue;
+            LocalDate date = weekly ? genericWeekStart.plusDays(slot.getDayIndex()) : calendar.dateOf(slot.getDayIndex());
+            LocalDateTime start = date.atTime(calendar.startOf(slot.getStartBinIndex()));
+            LocalDateTime end = date.atTime(calendar.startOf(slot.getStartBinIndex() + slot.getDurationBins()));
+
+            Project project = projects.get(slot.getProjectId());
+            ProjectAllocation allocation = allocations.get(slot.getProjectId());
+            String professor = allocation == null ? null
+                    : Optional.ofNullable(professors.get(allocation.getProfessorId())).map(Professor::getName).orElse(null);
+            String team = allocation == null ? "" : allocation.getAssignedStudentIds().stream()
+                    .map(students::get)
+                    .filter(Objects::nonNull)
+                    .map(Student::getName)
+                    .collect(Collectors.joining(", "));
+
+            ics.event("presentation-" + slot.getProjectId() + "@pms",
+                    stamp, start, end,
+                    "Presentation: " + (project != null ? project.getTitle() : "project " + slot.getProjectId()),
+                    roomNames.get(slot.getRoomId()),
+                    "Professor: " + (professor != null ? professor : "(unknown)") + "\nStudents: " + team,
+                    weekly);
+        }
+        ics.flush();
+    }
+}
@@ -1,13 +1,30 @@
 package vv.pms.presentation;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import vv.pms.availability.Availability;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import vv.pms.availability.AvailabilityChangedEvent;
+import vv.pms.availability.AvailabilityGrid;
 import vv.pms.availability.AvailabilityService;
+import vv.pms.availability.SchedulingCalendar;
+import vv.pms.allocation.AllocationChangedEvent;
 import vv.pms.allocation.AllocationService;
 import vv.pms.allocation.ProjectAllocation;
+import vv.pms.job.JobProgress;
+import vv.pms.job.JobService;
+import vv.pms.presentation.internal.DayMasks;
+import vv.pms.presentation.internal.PersonOccupancyIndex;
 import vv.pms.presentation.internal.PresentationSlotRepository;
+import vv.pms.presentation.internal.RoomOccupancyIndex;
 import vv.pms.presentation.internal.RoomRepository;
+import vv.pms.presentation.internal.ScheduleSolver;
 import vv.pms.professor.Professor;
 import vv.pms.professor.ProfessorService;
 import vv.pms.project.Project;
@@ -15,6 +32,7 @@ import vv.pms.project.ProjectService;
 import vv.pms.student.Student;
 import vv.pms.student.StudentService;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,6 +40,8 @@ import java.util.stream.Collectors;
 @Transactional
 public class PresentationService {
 
+    private static final Logger log = LoggerFactory.getLogger(PresentationService.class);
+
     private final RoomRepository roomRepository;
     private final PresentationSlotRepository slotRepository;
     private final AvailabilityService availabilityService;
@@ -29,18 +49,25 @@ public class PresentationService {
     private final ProjectService projectService;
     private final ProfessorService professorService;
     private final StudentService studentService;
-
-    // 5 days, 16 bins of 30 minutes (8:00–16:00)
-    private static final int DAYS = 5;
-    private static final int BINS = 16;
-    private static final int DURATION_BINS = 1; // 30 minutes
-
-    private static final String[] DAY_NAMES = {
-            "Monday", "Tuesday", "Wednesday", "Thursday", "Friday"
-    };
+    private final JobService jobService;
+    private final TransactionTemplate repairTransaction;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final PersonOccupancyIndex personIndex;
+    private final SchedulingCalendar calendar;
+    private final long solverBudgetMillis;
+    // Repairs run one at a time, each committing before the next one reads the schedule
+    private final Object repairLock = new Object();
+
+    // How much more moving a neighbour of a broken presentation costs than moving the broken one
+    private static final int NEIGHBOUR_WEIGHT = 4;
+    // Entry i is the length in calendar bins for a team of i + 1 students; larger teams use the last entry
+    private final int[] durationBinsByTeamSize;
 
     public record SlotOption(int dayIndex, int startBinIndex, String label) {}
 
+    /** Projects whose presentation a repair moved, and those it had to unschedule. */
+    public record RepairResult(List<Long> movedProjectIds, List<Long> unscheduledProjectIds) {}
+
     public record PresentationRow(
             Long projectId,
             String projectTitle,
@@ -50,13 +77,27 @@ public class PresentationService {
             String slotLabel
     ) {}
 
+    /** Everything the /presentations page shows, built from a fixed number of queries. */
+    public record PresentationBoard(
+            List<Room> rooms,
+            List<PresentationRow> rows,
+            Map<Long, List<SlotOption>> slotOptionsByProject
+    ) {}
+
     public PresentationService(RoomRepository roomRepository,
                                PresentationSlotRepository slotRepository,
                                AvailabilityService availabilityService,
                                AllocationService allocationService,
                                ProjectService projectService,
                                ProfessorService professorService,
-                               StudentService studentService) {
+                               StudentService studentService,
+                               JobService jobService,
+                               TransactionTemplate transactionTemplate,
+                               RoomOccupancyIndex occupancyIndex,
+                               PersonOccupancyIndex personIndex,
+                               SchedulingCalendar calendar,
+                               @Value("${pms.presentations.solver-budget-ms:2000}") long solverBudgetMillis,
+                               @Value("${pms.presentations.duration-minutes-by-team-size:30,60,90}") int[] durationMinutesByTeamSize) {
         this.roomRepository = roomRepository;
         this.slotRepository = slotRepository;
         this.availabilityService = availabilityService;
@@ -64,6 +105,25 @@ public class PresentationService {
         this.projectService = projectService;
         this.professorService = professorService;
         this.studentService = studentService;
+        this.jobService = jobService;
+        this.repairTransaction = transactionTemplate;
+        this.occupancyIndex = occupancyIndex;
+        this.personIndex = personIndex;
+        this.calendar = calendar;
+        this.solverBudgetMillis = solverBudgetMillis;
+        this.durationBinsByTeamSize = toBins(durationMinutesByTeamSize, calendar);
+    }
+
+    // Durations are configured in minutes so they keep their meaning when the bin size changes
+    private static int[] toBins(int[] minutes, SchedulingCalendar calendar) {
+        int binMinutes = calendar.binMinutes();
+        if (minutes.length == 0 || Arrays.stream(minutes).anyMatch(m -> m < binMinutes || m % binMinutes != 0
+                || m / binMinutes > calendar.bins())) {
+            throw new IllegalArgumentException("Presentation durations must be whole numbers of " + binMinutes
+                    + "-minute bins, from " + binMinutes + " to " + binMinutes * calendar.bins() + " minutes; got "
+                    + Arrays.toString(minutes));
+        }
+        return Arrays.stream(minutes).map(m -> m / binMinutes).toArray();
     }
 
     // -----------------------------
@@ -82,10 +142,10 @@ public class PresentationService {
                                                int dayIndex,
                                                int startBinIndex) {
 
-        if (dayIndex < 0 || dayIndex >= DAYS) {
+        if (dayIndex < 0 || dayIndex >= calendar.days()) {
             throw new IllegalArgumentException("Invalid day index: " + dayIndex);
         }
-        if (startBinIndex < 0 || startBinIndex >= BINS) {
+        if (startBinIndex < 0 || startBinIndex >= calendar.bins()) {
             throw new IllegalArgumentException("Invalid start-bin index: " + startBinIndex);
         }
 
@@ -95,9 +155,19 @@ public class PresentationService {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new IllegalArgumentException("Room " + roomId + " not found"));
 
-        if (hasRoomConflict(roomId, dayIndex, startBinIndex, DURATION_BINS, projectId)) {
+        ProjectAllocation allocation = allocationService.findAllocationByProjectId(projectId).orElse(null);
+        int duration = durationBinsFor(allocation);
+        if (startBinIndex + duration > calendar.bins()) {
+            throw new IllegalArgumentException("Presentation does not fit in the day from start-bin " + startBinIndex);
+        }
+
+        if (hasRoomConflict(roomId, dayIndex, startBinIndex, duration, projectId)) {
             throw new IllegalStateException("Room is already booked at that time.");
         }
+        if (allocation != null
+                && DayMasks.overlaps(teamBusy(allocation), dayIndex, startBinIndex, duration)) {
+            throw new IllegalStateException("The professor or a team member already presents at that time.");
+        }
 
         PresentationSlot slot = slotRepository.findByProjectId(projectId)
                 .orElseGet(PresentationSlot::new);
@@ -106,13 +176,18 @@ public class PresentationService {
         slot.setRoomId(room.getId());
         slot.setDayIndex(dayIndex);
         slot.setStartBinIndex(startBinIndex);
-        slot.setDurationBins(DURATION_BINS);
+        slot.setDurationBins(duration);
 
-        return slotRepository.save(slot);
+        PresentationSlot saved = slotRepository.save(slot);
+        book(saved);
+        return saved;
     }
 
     public void unassignPresentation(Long projectId) {
-        slotRepository.findByProjectId(projectId).ifPresent(slotRepository::delete);
+        slotRepository.findByProjectId(projectId).ifPresent(slot -> {
+            slotRepository.delete(slot);
+            release(projectId);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -134,122 +209,54 @@ public class PresentationService {
         if (room == null) {
             return List.of();
         }
-        Boolean[][] roomAvail = normalize(room.getAvailability());
 
         Long professorId = allocation.getProfessorId();
         Professor prof = professorService.findProfessorById(professorId).orElse(null);
         if (prof == null) {
             return List.of();
         }
-        Availability profAvailEntity = availabilityService.getAvailability(professorId, "PROFESSOR");
-        Boolean[][] profAvail = normalize(profAvailEntity.getTimeslots());
 
-        List<Long> studentIds = allocation.getAssignedStudentIds();
-        List<Boolean[][]> studentMatrices = new ArrayList<>();
-        for (Long sid : studentIds) {
+        // Intersect room, professor and team calendars, then drop bins the room or anyone on the
+        // team is already booked
+        long[] free = calendar.fit(room.getAvailability()).masks();
+        DayMasks.and(free, calendar.fit(availabilityService.getGrid(professorId, "PROFESSOR")).masks());
+        for (Long sid : allocation.getAssignedStudentIds()) {
             Student s = studentService.findStudentById(sid).orElse(null);
             if (s == null) continue;
-            Availability sAvailEntity = availabilityService.getAvailability(sid, "STUDENT");
-            studentMatrices.add(normalize(sAvailEntity.getTimeslots()));
+            DayMasks.and(free, calendar.fit(availabilityService.getGrid(sid, "STUDENT")).masks());
         }
+        DayMasks.clear(free, occupancy().occupied(roomId, projectId, calendar.days()));
+        DayMasks.clear(free, teamBusy(allocation));
 
-        boolean[][] intersection = new boolean[DAYS][BINS];
-        for (int d = 0; d < DAYS; d++) {
-            for (int t = 0; t < BINS; t++) {
-                boolean ok = bool(roomAvail[d][t]) && bool(profAvail[d][t]);
-                for (Boolean[][] sm : studentMatrices) {
-                    ok = ok && bool(sm[d][t]);
-                    if (!ok) break;
-                }
-                intersection[d][t] = ok;
-            }
-        }
-
-        Map<Integer, Set<Integer>> occupied = occupiedBinsForRoom(roomId, projectId);
-
-        List<SlotOption> result = new ArrayList<>();
-        for (int d = 0; d < DAYS; d++) {
-            for (int t = 0; t <= BINS - DURATION_BINS; t++) {
-                boolean blockOk = true;
-                for (int k = 0; k < DURATION_BINS; k++) {
-                    if (!intersection[d][t + k]) {
-                        blockOk = false;
-                        break;
-                    }
-                }
-                if (!blockOk) continue;
-                if (binRangeOverlaps(occupied, d, t, DURATION_BINS)) {
-                    continue;
-                }
-                String label = formatSlotLabel(d, t, DURATION_BINS);
-                result.add(new SlotOption(d, t, label));
-            }
-        }
-
-        return result.stream()
-                .sorted(Comparator.comparingInt(SlotOption::dayIndex)
-                        .thenComparingInt(SlotOption::startBinIndex))
-                .collect(Collectors.toList());
+        return slotOptions(free, durationBinsFor(allocation));
     }
 
-    private Boolean[][] normalize(Boolean[][] src) {
-        Boolean[][] matrix = new Boolean[DAYS][BINS];
-        for (int d = 0; d < DAYS; d++) {
-            for (int t = 0; t < BINS; t++) {
-                Boolean v = (src != null && d < src.length && src[d] != null && t < src[d].length)
-                        ? src[d][t]
-                        : Boolean.FALSE;
-                matrix[d][t] = (v != null ? v : Boolean.FALSE);
-            }
-        }
-        return matrix;
+    /** Presentation length in bins for the project's team size. */
+    @Transactional(readOnly = true)
+    public int durationBinsFor(Long projectId) {
+        return durationBinsFor(allocationService.findAllocationByProjectId(projectId).orElse(null));
     }
 
-    private boolean bool(Boolean b) {
-        return b != null && b;
+    private int durationBinsFor(ProjectAllocation allocation) {
+        int teamSize = allocation == null ? 0 : allocation.getAssignedStudentIds().size();
+        int index = Math.min(Math.max(teamSize, 1), durationBinsByTeamSize.length) - 1;
+        return durationBinsByTeamSize[index];
     }
 
-    private Map<Integer, Set<Integer>> occupiedBinsForRoom(Long roomId, Long projectIdToIgnore) {
-        List<PresentationSlot> slots = slotRepository.findByRoomId(roomId);
-        Map<Integer, Set<Integer>> map = new HashMap<>();
-        for (PresentationSlot s : slots) {
-            if (projectIdToIgnore != null && projectIdToIgnore.equals(s.getProjectId())) {
-                continue;
-            }
-            int d = s.getDayIndex();
-            int start = s.getStartBinIndex();
-            int dur = s.getDurationBins();
-            Set<Integer> set = map.computeIfAbsent(d, k -> new HashSet<>());
-            for (int t = start; t < start + dur; t++) {
-                set.add(t);
+    // Every start where the presentation fits in the free mask, in day/time order
+    private List<SlotOption> slotOptions(long[] free, int duration) {
+        List<SlotOption> result = new ArrayList<>();
+        for (int d = 0; d < calendar.days(); d++) {
+            for (long starts = DayMasks.windowStarts(free[d], duration); starts != 0; starts &= starts - 1) {
+                int t = Long.numberOfTrailingZeros(starts);
+                result.add(new SlotOption(d, t, formatSlotLabel(d, t, duration)));
             }
         }
-        return map;
-    }
-
-    private boolean binRangeOverlaps(Map<Integer, Set<Integer>> occupied,
-                                     int dayIndex,
-                                     int startBin,
-                                     int dur) {
-        Set<Integer> used = occupied.get(dayIndex);
-        if (used == null) return false;
-        for (int t = startBin; t < startBin + dur; t++) {
-            if (used.contains(t)) return true;
-        }
-        return false;
+        return result;
     }
 
     private String formatSlotLabel(int dayIndex, int startBinIndex, int durBins) {
-        String day = DAY_NAMES[dayIndex];
-        int startMinutes = 8 * 60 + startBinIndex * 30;
-        int endMinutes = startMinutes + durBins * 30;
-
-        return String.format(
-                "%s %02d:%02d-%02d:%02d",
-                day,
-                startMinutes / 60, startMinutes % 60,
-                endMinutes / 60, endMinutes % 60
-        );
+        return calendar.describe(dayIndex, startBinIndex, durBins);
     }
 
     @Transactional(readOnly = true)
@@ -258,91 +265,361 @@ public class PresentationService {
         return formatSlotLabel(slot.getDayIndex(), slot.getStartBinIndex(), slot.getDurationBins());
     }
 
+    private String describeBooking(RoomOccupancyIndex.Booking booking) {
+        if (booking == null) return null;
+        return formatSlotLabel(booking.dayIndex(), booking.startBinIndex(), booking.durationBins());
+    }
+
     // -----------------------------
     // Best-effort allocation
     // -----------------------------
     public void runBestEffortAllocation() {
+        runBestEffortAllocation(JobProgress.NONE);
+    }
+
+    /**
+     * As {@link #runBestEffortAllocation()}, reporting progress to {@code progress}.
+     *
+     * Loads rooms, bookings and every calendar once, then hands the whole unscheduled set to
+     * {@link ScheduleSolver} so constrained projects are placed before flexible ones take their
+     * slots. Existing presentations are kept as they are.
+     */
+    public void runBestEffortAllocation(JobProgress progress) {
         List<Room> rooms = roomRepository.findAll();
         if (rooms.isEmpty()) return;
 
-        List<ProjectAllocation> allocations = allocationService.findAllAllocations().stream()
+        List<ProjectAllocation> allocations = allocationService.findAllAllocationsWithStudents().stream()
                 .filter(a -> !a.getAssignedStudentIds().isEmpty())
                 .collect(Collectors.toList());
+        progress.phase("Loading calendars", allocations.size());
+
+        RoomOccupancyIndex occupancy = occupancy();
+        Set<Long> scheduled = occupancy.bookings().keySet();
+
+        List<ProjectAllocation> pending = allocations.stream()
+                .filter(a -> !scheduled.contains(a.getProjectId()) && a.getProfessorId() != null)
+                .toList();
+        Set<Long> projectIds = new HashSet<>();
+        Set<Long> professorIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (ProjectAllocation a : pending) {
+            projectIds.add(a.getProjectId());
+            professorIds.add(a.getProfessorId());
+            studentIds.addAll(a.getAssignedStudentIds());
+        }
+        Set<Long> existingProjects = projectService.findProjectsByIds(projectIds).stream()
+                .map(Project::getId)
+                .collect(Collectors.toSet());
+        Set<Long> existingProfessors = professorService.findByIds(professorIds).keySet();
+        Set<Long> existingStudents = studentService.findByIds(studentIds).keySet();
+        Map<Long, AvailabilityGrid> professorCalendars = availabilityService.findGrids(professorIds, "PROFESSOR");
+        Map<Long, AvailabilityGrid> studentCalendars = availabilityService.findGrids(studentIds, "STUDENT");
+
+        List<ScheduleSolver.Task> tasks = new ArrayList<>();
+        for (ProjectAllocation a : pending) {
+            if (!existingProjects.contains(a.getProjectId()) || !existingProfessors.contains(a.getProfessorId())) {
+                continue;
+            }
+            long[] free = masksOf(professorCalendars.get(a.getProfessorId()));
+            for (Long sid : a.getAssignedStudentIds()) {
+                if (existingStudents.contains(sid)) DayMasks.and(free, masksOf(studentCalendars.get(sid)));
+            }
+            DayMasks.clear(free, teamBusy(a));
+            tasks.add(new ScheduleSolver.Task(a.getProjectId(), durationBinsFor(a), free, peopleOf(a)));
+        }
+        progress.advance(allocations.size());
 
-        for (ProjectAllocation allocation : allocations) {
-            Long pid = allocation.getProjectId();
-            if (!projectService.findProjectById(pid).isPresent()) continue;
-            if (slotRepository.findByProjectId(pid).isPresent()) continue;
-
-            for (Room room : rooms) {
-                List<SlotOption> options = getAvailableSlots(pid, room.getId());
-                if (!options.isEmpty()) {
-                    SlotOption first = options.get(0);
-                    try {
-                        assignPresentation(pid, room.getId(), first.dayIndex(), first.startBinIndex());
-                        break;
-                    } catch (RuntimeException ignored) {
-                    }
-                }
+        List<ScheduleSolver.Venue> venues = new ArrayList<>();
+        for (Room room : rooms) {
+            long[] free = calendar.fit(room.getAvailability()).masks();
+            DayMasks.clear(free, occupancy.occupied(room.getId(), null, calendar.days()));
+            venues.add(new ScheduleSolver.Venue(room.getId(), free));
+        }
+
+        progress.phase("Scheduling presentations", tasks.size());
+        ScheduleSolver.Result result = new ScheduleSolver(calendar.days())
+                .solve(tasks, venues, Duration.ofMillis(solverBudgetMillis));
+        slotRepository.saveAll(result.placements().stream()
+                .map(p -> new PresentationSlot(p.taskId(), p.venueId(), p.dayIndex(), p.startBinIndex(), p.durationBins()))
+                .toList())
+                .forEach(this::book);
+        progress.advance(tasks.size());
+    }
+
+    // Whether the free mask still contains every bin of the booking
+    private boolean covers(long[] free, RoomOccupancyIndex.Booking booking) {
+        long bins = DayMasks.range(booking.startBinIndex(), booking.durationBins());
+        return booking.dayIndex() < free.length && (free[booking.dayIndex()] & bins) == bins;
+    }
+
+    private Set<String> peopleOf(ProjectAllocation allocation) {
+        Set<String> people = new HashSet<>();
+        people.add("PROFESSOR:" + allocation.getProfessorId());
+        allocation.getAssignedStudentIds().forEach(sid -> people.add("STUDENT:" + sid));
+        return people;
+    }
+
+    private long[] masksOf(AvailabilityGrid grid) {
+        return grid == null ? new long[calendar.days()] : calendar.fit(grid).masks();
+    }
+
+    // -----------------------------
+    // Repair after availability changes
+    // -----------------------------
+    // Queued once the availability change has committed. The repair runs as a background job in
+    // a transaction of its own, so the user's save neither waits for the solver nor sees it fail.
+    // Every change gets its own job: merging into a running one could miss the newer calendar.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        String key = "presentation-repair:" + event.userType() + ":" + event.userId() + ":" + UUID.randomUUID();
+        try {
+            jobService.submit(key, progress -> repairInBackground(event));
+        } catch (JobService.JobRejectedException e) {
+            log.warn("Presentation repair for {} {} not queued: {}", event.userType(), event.userId(), e.getMessage());
+        }
+    }
+
+    private void repairInBackground(AvailabilityChangedEvent event) {
+        try {
+            synchronized (repairLock) {
+                repairTransaction.executeWithoutResult(status -> repairSchedule(event.userId(), event.userType()));
             }
+        } catch (RuntimeException e) {
+            log.error("Presentation repair for {} {} failed", event.userType(), event.userId(), e);
+            throw e;
         }
     }
 
+    /**
+     * Re-places the presentations the user can no longer attend. They are re-solved together with
+     * their neighbours (bookings on the same day in the same room or with someone in common),
+     * preferring each one's old room, day and time. Neighbours are anchored more heavily, so they
+     * only shift when that lets a broken presentation stay close; every other booking stays
+     * fixed. Presentations with no feasible slot left are unassigned.
+     */
+    public RepairResult repairSchedule(Long userId, String userType) {
+        List<ProjectAllocation> involved = "PROFESSOR".equals(userType)
+                ? allocationService.findAllocationsByProfessorId(userId)
+                : allocationService.findAllocationByStudentId(userId).map(List::of).orElse(List.of());
+        RoomOccupancyIndex occupancy = occupancy();
+        if (involved.stream().noneMatch(a -> occupancy.bookingOf(a.getProjectId()).isPresent())) {
+            return new RepairResult(List.of(), List.of());
+        }
+
+        long[] free = masksOf(availabilityService.findGrids(List.of(userId), userType).get(userId));
+        Map<Long, RoomOccupancyIndex.Booking> broken = new LinkedHashMap<>();
+        for (ProjectAllocation a : involved) {
+            occupancy.bookingOf(a.getProjectId())
+                    .filter(b -> !covers(free, b))
+                    .ifPresent(b -> broken.put(a.getProjectId(), b));
+        }
+        if (broken.isEmpty()) return new RepairResult(List.of(), List.of());
+
+        // Everything booked on a day with a broken presentation is a candidate neighbour
+        Set<Integer> brokenDays = broken.values().stream()
+                .map(RoomOccupancyIndex.Booking::dayIndex)
+                .collect(Collectors.toSet());
+        Map<Long, RoomOccupancyIndex.Booking> sameDay = new HashMap<>();
+        occupancy.bookings().forEach((projectId, b) -> {
+            if (brokenDays.contains(b.dayIndex()) && !broken.containsKey(projectId)) sameDay.put(projectId, b);
+        });
+        Set<Long> teamIds = new HashSet<>(broken.keySet());
+        teamIds.addAll(sameDay.keySet());
+        Map<Long, ProjectAllocation> teams = allocationService.findAllocationsWithStudentsByProjectIds(teamIds);
+
+        Map<Long, RoomOccupancyIndex.Booking> neighbours = new LinkedHashMap<>();
+        sameDay.forEach((projectId, b) -> {
+            ProjectAllocation team = teams.get(projectId);
+            if (team == null) return;
+            boolean touches = broken.entrySet().stream().anyMatch(k -> k.getValue().dayIndex() == b.dayIndex()
+                    && (k.getValue().roomId().equals(b.roomId())
+                        || !Collections.disjoint(peopleOf(team), peopleOf(teams.get(k.getKey())))));
+            if (touches) neighbours.put(projectId, b);
+        });
+
+        // Take the re-solved bookings out so they do not block their own replacements
+        Map<Long, RoomOccupancyIndex.Booking> resolved = new LinkedHashMap<>(broken);
+        resolved.putAll(neighbours);
+        resolved.keySet().forEach(this::release);
+
+        Set<Long> professorIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        resolved.keySet().forEach(projectId -> {
+            ProjectAllocation a = teams.get(projectId);
+            if (a.getProfessorId() != null) professorIds.add(a.getProfessorId());
+            studentIds.addAll(a.getAssignedStudentIds());
+        });
+        Map<Long, AvailabilityGrid> professorCalendars = availabilityService.findGrids(professorIds, "PROFESSOR");
+        Map<Long, AvailabilityGrid> studentCalendars = availabilityService.findGrids(studentIds, "STUDENT");
+        Set<Long> existingStudents = studentService.findByIds(studentIds).keySet();
+
+        List<ScheduleSolver.Task> tasks = new ArrayList<>();
+        for (Map.Entry<Long, RoomOccupancyIndex.Booking> entry : resolved.entrySet()) {
+            ProjectAllocation a = teams.get(entry.getKey());
+            long[] teamFree = masksOf(professorCalendars.get(a.getProfessorId()));
+            for (Long sid : a.getAssignedStudentIds()) {
+                if (existingStudents.contains(sid)) DayMasks.and(teamFree, masksOf(studentCalendars.get(sid)));
+            }
+            DayMasks.clear(teamFree, teamBusy(a));
+            RoomOccupancyIndex.Booking old = entry.getValue();
+            int weight = neighbours.containsKey(entry.getKey()) ? NEIGHBOUR_WEIGHT : 1;
+            tasks.add(new ScheduleSolver.Task(a.getProjectId(), old.durationBins(), teamFree, peopleOf(a),
+                    new ScheduleSolver.Anchor(old.roomId(), old.dayIndex(), old.startBinIndex(), weight)));
+        }
+        List<ScheduleSolver.Venue> venues = new ArrayList<>();
+        for (Room room : roomRepository.findAll()) {
+            long[] roomFree = calendar.fit(room.getAvailability()).masks();
+            DayMasks.clear(roomFree, occupancy.occupied(room.getId(), null, calendar.days()));
+            venues.add(new ScheduleSolver.Venue(room.getId(), roomFree));
+        }
+
+        ScheduleSolver.Result result = new ScheduleSolver(calendar.days())
+                .solve(tasks, venues, Duration.ofMillis(solverBudgetMillis));
+        List<Long> moved = new ArrayList<>();
+        for (ScheduleSolver.Placement p : result.placements()) {
+            RoomOccupancyIndex.Booking old = resolved.get(p.taskId());
+            boolean stays = old.roomId().equals(p.venueId()) && old.dayIndex() == p.dayIndex()
+                    && old.startBinIndex() == p.startBinIndex();
+            slotRepository.findByProjectId(p.taskId()).ifPresent(slot -> {
+                if (stays) {
+                    book(slot);
+                    return;
+                }
+                slot.setRoomId(p.venueId());
+                slot.setDayIndex(p.dayIndex());
+                slot.setStartBinIndex(p.startBinIndex());
+                book(slotRepository.save(slot));
+                moved.add(p.taskId());
+            });
+        }
+        for (Long projectId : result.unscheduled()) {
+            slotRepository.findByProjectId(projectId).ifPresent(slotRepository::delete);
+        }
+        return new RepairResult(moved, result.unscheduled());
+    }
+
     // -----------------------------
     // View model for /presentations
     // -----------------------------
     @Transactional(readOnly = true)
     public List<PresentationRow> buildPresentationRows() {
-        List<ProjectAllocation> allocations = allocationService.findAllAllocations().stream()
+        return buildPresentationBoard().rows();
+    }
+
+    /**
+     * Rows plus each project's slot options, for its booked room or else the first room.
+     *
+     * Allocations (with teams), projects, professors, students, both kinds of availability and
+     * rooms are each read with one query; bookings come from the occupancy indexes. The options
+     * are then computed in memory with the same rules as {@link #getAvailableSlots(Long, Long)}.
+     */
+    @Transactional(readOnly = true)
+    public PresentationBoard buildPresentationBoard() {
+        List<ProjectAllocation> allocations = allocationService.findAllAllocationsWithStudents().stream()
                 .filter(a -> !a.getAssignedStudentIds().isEmpty())
-                .collect(Collectors.toList());
+                .toList();
+        List<Room> rooms = roomRepository.findAll();
 
-        List<PresentationRow> rows = new ArrayList<>();
+        Set<Long> projectIds = new HashSet<>();
+        Set<Long> professorIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (ProjectAllocation a : allocations) {
+            projectIds.add(a.getProjectId());
+            if (a.getProfessorId() != null) professorIds.add(a.getProfessorId());
+            studentIds.addAll(a.getAssignedStudentIds());
+        }
+        Map<Long, Project> projects = projectService.findProjectsByIds(projectIds).stream()
+                .collect(Collectors.toMap(Project::getId, p -> p));
+        Map<Long, Professor> professors = professorService.findByIds(professorIds);
+        Map<Long, Student> students = studentService.findByIds(studentIds);
+        Map<Long, AvailabilityGrid> professorCalendars = availabilityService.findGrids(professors.keySet(), "PROFESSOR");
+        Map<Long, AvailabilityGrid> studentCalendars = availabilityService.findGrids(students.keySet(), "STUDENT");
+
+        RoomOccupancyIndex occupancy = occupancy();
+        Map<Long, long[]> roomMasks = new HashMap<>();
+        for (Room room : rooms) {
+            roomMasks.put(room.getId(), calendar.fit(room.getAvailability()).masks());
+        }
 
+        List<PresentationRow> rows = new ArrayList<>();
+        Map<Long, List<SlotOption>> options = new HashMap<>();
         for (ProjectAllocation alloc : allocations) {
             Long projectId = alloc.getProjectId();
-            Project project = projectService.findProjectById(projectId).orElse(null);
+            Project project = projects.get(projectId);
             if (project == null) continue;
 
-            Professor prof = professorService.findProfessorById(alloc.getProfessorId()).orElse(null);
-            String profName = prof != null ? prof.getName() : "(unknown)";
-
-            List<Long> studentIds = alloc.getAssignedStudentIds();
-            String studentNames = studentIds.stream()
-                    .map(id -> studentService.findStudentById(id).orElse(null))
+            Professor prof = professors.get(alloc.getProfessorId());
+            String studentNames = alloc.getAssignedStudentIds().stream()
+                    .map(students::get)
                     .filter(Objects::nonNull)
                     .map(Student::getName)
                     .collect(Collectors.joining(", "));
-
-            PresentationSlot slot = slotRepository.findByProjectId(projectId).orElse(null);
-            Long roomId = slot != null ? slot.getRoomId() : null;
-            String slotLabel = describeSlot(slot);
-
+            RoomOccupancyIndex.Booking booking = occupancy.bookingOf(projectId).orElse(null);
+            Long roomId = booking != null ? booking.roomId() : null;
             rows.add(new PresentationRow(
                     projectId,
                     project.getTitle(),
-                    profName,
+                    prof != null ? prof.getName() : "(unknown)",
                     studentNames,
                     roomId,
-                    slotLabel
+                    describeBooking(booking)
             ));
+
+            Long optionRoomId = roomId != null ? roomId : rooms.isEmpty() ? null : rooms.get(0).getId();
+            if (optionRoomId == null) continue;
+            if (prof == null || !roomMasks.containsKey(optionRoomId)) {
+                options.put(projectId, List.of());
+                continue;
+            }
+            long[] free = roomMasks.get(optionRoomId).clone();
+            DayMasks.and(free, masksOf(professorCalendars.get(prof.getId())));
+            for (Long sid : alloc.getAssignedStudentIds()) {
+                if (students.containsKey(sid)) DayMasks.and(free, masksOf(studentCalendars.get(sid)));
+            }
+            DayMasks.clear(free, occupancy.occupied(optionRoomId, projectId, calendar.days()));
+            DayMasks.clear(free, teamBusy(alloc));
+            options.put(projectId, slotOptions(free, durationBinsFor(alloc)));
         }
 
-        return rows;
+        return new PresentationBoard(rooms, rows, options);
     }
 
     private boolean hasRoomConflict(Long roomId, int dayIndex, int startBinIndex, int durationBins, Long projectIdToIgnore) {
-        Map<Integer, Set<Integer>> occupied = occupiedBinsForRoom(roomId, projectIdToIgnore);
+        return !occupancy().isFree(roomId, dayIndex, startBinIndex, durationBins, projectIdToIgnore);
+    }
 
-        Set<Integer> used = occupied.get(dayIndex);
-        if (used == null) return false;
+    // Bins in which the team's professor or a student presents some other project
+    private long[] teamBusy(ProjectAllocation allocation) {
+        return people().busy(allocation.getProjectId(), allocation.getProfessorId(),
+                allocation.getAssignedStudentIds(), calendar.days());
+    }
 
-        for (int t = startBinIndex; t < startBinIndex + durationBins; t++) {
-            if (used.contains(t)) {
-                return true;
-            }
-        }
-        return false;
+    // Every booking change goes to both indexes
+    private void book(PresentationSlot slot) {
+        occupancy().book(slot);
+        people().book(slot);
+    }
+
+    private void release(Long projectId) {
+        occupancy().release(projectId);
+        people().release(projectId);
+    }
+
+    // Teams decide whose calendars a booking blocks
+    @EventListener
+    public void onAllocationChanged(AllocationChangedEvent event) {
+        personIndex.setTeam(event.projectId(), event.professorId(), event.studentIds());
     }
 
+    private RoomOccupancyIndex occupancy() {
+        occupancyIndex.ensureLoaded(slotRepository::findAll);
+        return occupancyIndex;
+    }
+
+    private PersonOccupancyIndex people() {
+        personIndex.ensureLoaded(() -> occupancy().bookings().values(),
+                allocationService::findAllAllocationsWithStudents);
+        return personIndex;
+    }
 }
\ No newline at end of file
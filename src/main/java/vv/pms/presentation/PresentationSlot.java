@@ -18,15 +18,15 @@ public class PresentationSlot {
     @Column(nullable = false)
     private Long roomId;
 
-    // 0-4 = Mon-Fri
+    // Day of the SchedulingCalendar (0-4 = Mon-Fri by default)
     @Column(nullable = false)
     private int dayIndex;
 
-    // 0-15 = 30-min bins from 08:00
+    // Time bin of that day (0-15 = 30-min bins from 08:00 by default)
     @Column(nullable = false)
     private int startBinIndex;
 
-    // 1 = 30 minutes
+    // Length in bins
     @Column(nullable = false)
     private int durationBins = 1;
 
@@ -2,6 +2,7 @@ package vv.pms.presentation;
 
 import jakarta.persistence.*;
 import vv.pms.availability.Availability;
+import vv.pms.availability.AvailabilityGrid;
 
 @Entity
 @Table(name = "rooms")
@@ -14,39 +15,41 @@ public class Room {
     @Column(nullable = false, unique = true)
     private String name;
 
-    // 5 x 16 matrix (Mon–Fri, 30-min bins 08:00–16:00)
-    @Convert(converter = Availability.MatrixConverter.class)
-    @Column(columnDefinition = "TEXT")
-    private Boolean[][] availability;
+    // days x bins on the SchedulingCalendar (Room(name) defaults to the 5 x 16 week)
+    @Convert(converter = Availability.DayBitsConverter.class)
+    @Column(name = "availability_bits", length = Availability.DayBitsConverter.MAX_BYTES)
+    private AvailabilityGrid availability;
+
+    // JSON written before availability_bits existed; moved over on load and then cleared
+    @Column(name = "availability", columnDefinition = "TEXT")
+    private String legacyAvailability;
 
     public Room() {
     }
 
     public Room(String name) {
         this.name = name;
-        this.availability = defaultFullAvailability();
+        this.availability = AvailabilityGrid.full(5, 16); // by default, rooms are available everywhere
     }
 
-    public Room(String name, Boolean[][] availability) {
+    public Room(String name, AvailabilityGrid availability) {
         this.name = name;
         this.availability = availability;
     }
 
-    private Boolean[][] defaultFullAvailability() {
-        Boolean[][] matrix = new Boolean[5][16];
-        for (int d = 0; d < 5; d++) {
-            for (int t = 0; t < 16; t++) {
-                matrix[d][t] = Boolean.TRUE; // by default, rooms are available everywhere
-            }
-        }
-        return matrix;
-    }
-
     public Long getId() { return id; }
     public String getName() { return name; }
-    public Boolean[][] getAvailability() { return availability; }
+    public AvailabilityGrid getAvailability() { return availability; }
 
     public void setId(Long id) { this.id = id; }
     public void setName(String name) { this.name = name; }
-    public void setAvailability(Boolean[][] availability) { this.availability = availability; }
+    public void setAvailability(AvailabilityGrid availability) { this.availability = availability; }
+
+    @PostLoad
+    void migrateLegacyAvailability() {
+        if (legacyAvailability != null) {
+            if (availability == null) availability = AvailabilityGrid.of(new Availability.MatrixConverter().convertToEntityAttribute(legacyAvailability));
+            legacyAvailability = null;
+        }
+    }
 }
\ No newline at end of file
@@ -1,7 +1,15 @@
 package vv.pms.presentation;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import vv.pms.availability.SchedulingCalendar;
+import vv.pms.common.BatchMigration;
+import vv.pms.presentation.internal.PersonOccupancyIndex;
+import vv.pms.presentation.internal.PresentationSlotRepository;
+import vv.pms.presentation.internal.RoomOccupancyIndex;
 import vv.pms.presentation.internal.RoomRepository;
 
 import java.util.List;
@@ -11,9 +19,24 @@ import java.util.List;
 public class RoomService {
 
     private final RoomRepository repository;
+    private final PresentationSlotRepository slotRepository;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final PersonOccupancyIndex personIndex;
+    private final SchedulingCalendar calendar;
+    private final BatchMigration batchMigration;
 
-    public RoomService(RoomRepository repository) {
+    public RoomService(RoomRepository repository,
+                       PresentationSlotRepository slotRepository,
+                       RoomOccupancyIndex occupancyIndex,
+                       PersonOccupancyIndex personIndex,
+                       SchedulingCalendar calendar,
+                       BatchMigration batchMigration) {
         this.repository = repository;
+        this.slotRepository = slotRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.personIndex = personIndex;
+        this.calendar = calendar;
+        this.batchMigration = batchMigration;
     }
 
     public Room createRoom(String name) {
@@ -23,7 +46,8 @@ public class RoomService {
         if (repository.existsByNameIgnoreCase(name.trim())) {
             throw new IllegalArgumentException("Room with that name already exists");
         }
-        Room room = new Room(name.trim());
+        // Rooms start out bookable across the whole calendar
+        Room room = new Room(name.trim(), calendar.grid(true));
         return repository.save(room);
     }
 
@@ -39,11 +63,25 @@ public class RoomService {
             throw new IllegalArgumentException("Room with that name already exists");
         }
         room.setName(cleaned);
-        return repository.save(room);
+        Room saved = repository.save(room);
+        // Room names are part of the published schedule; see RoomOccupancyIndex#version
+        occupancyIndex.afterWrite();
+        return saved;
     }
 
+    /** Deletes the room together with the presentations booked in it. */
     public void deleteRoom(Long id) {
+        slotRepository.deleteAll(slotRepository.findByRoomId(id));
         repository.deleteById(id);
+        occupancyIndex.removeRoom(id);
+        personIndex.removeRoom(id);
+    }
+
+    /** Moves rooms still holding JSON availability into the bit-packed column; see {@link Room}. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void migrateLegacyAvailability() {
+        batchMigration.run(repository::findTop200ByLegacyAvailabilityIsNotNull, repository::saveAll);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,37 @@
+package vv.pms.presentation.internal;
+
+import jakarta.persistence.*;
+
+// Secret that unlocks one person's .ics feed; calendar clients cannot log in, so it rides in the URL
+@Entity
+@Table(name = "calendar_feed_tokens",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "user_type", "user_id" }))
+public class CalendarFeedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_type", nullable = false)
+    private String userType;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, unique = true)
+    private String token;
+
+    protected CalendarFeedToken() {
+    }
+
+    public CalendarFeedToken(String userType, Long userId, String token) {
+        this.userType = userType;
+        this.userId = userId;
+        this.token = token;
+    }
+
+    public Long getId() { return id; }
+    public String getUserType() { return userType; }
+    public Long getUserId() { return userId; }
+    public String getToken() { return token; }
+}
@@ -0,0 +1,10 @@
+package vv.pms.presentation.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface CalendarFeedTokenRepository extends JpaRepository<CalendarFeedToken, Long> {
+
+    Optional<CalendarFeedToken> findByUserTypeAndUserId(String userType, Long userId);
+}
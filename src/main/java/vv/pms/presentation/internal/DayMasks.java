@@ -0,0 +1,51 @@
+package vv.pms.presentation.internal;
+
+import vv.pms.availability.AvailabilityGrid;
+
+/**
+ * Mutable scratch counterpart of {@link AvailabilityGrid} for the scheduler's inner loops: a
+ * {@code long[]} with one entry per day, where bit {@code t} stands for time bin {@code t}.
+ * Intersecting calendars, masking out occupied bins and finding where a presentation fits are
+ * then a few AND/shift operations per day, in place.
+ *
+ * Free masks have bit set = free; occupancy masks have bit set = taken.
+ */
+public final class DayMasks {
+
+    private DayMasks() {}
+
+    /** Bits {@code start .. start+length-1}. */
+    public static long range(int start, int length) {
+        return AvailabilityGrid.range(start, length);
+    }
+
+    public static long[] full(int days, int bins) {
+        long[] mask = new long[days];
+        java.util.Arrays.fill(mask, range(0, bins));
+        return mask;
+    }
+
+    /** {@code target &= other}, day by day. */
+    public static void and(long[] target, long[] other) {
+        for (int d = 0; d < target.length; d++) target[d] &= other[d];
+    }
+
+    /** {@code target &= ~occupied}, day by day. */
+    public static void clear(long[] target, long[] occupied) {
+        for (int d = 0; d < target.length; d++) target[d] &= ~occupied[d];
+    }
+
+    /** Marks {@code length} bins from {@code start} as taken on {@code day}. */
+    public static void mark(long[] occupied, int day, int start, int length) {
+        occupied[day] |= range(start, length);
+    }
+
+    public static boolean overlaps(long[] occupied, int day, int start, int length) {
+        return (occupied[day] & range(start, length)) != 0;
+    }
+
+    /** Start bins at which {@code duration} consecutive free bins begin, see {@link AvailabilityGrid#windowStarts}. */
+    public static long windowStarts(long free, int duration) {
+        return AvailabilityGrid.windowStarts(free, duration);
+    }
+}
@@ -0,0 +1,82 @@
+package vv.pms.presentation.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Minimal RFC 5545 writer: CRLF line endings, TEXT escaping and folding at 75 octets.
+ * Times are written as floating local times, i.e. in whatever zone the client is in.
+ */
+public class IcsWriter {
+
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int MAX_OCTETS = 75;
+
+    private final Writer out;
+
+    public IcsWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void beginCalendar(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//VV PMS//Presentations//EN");
+        line("CALSCALE:GREGORIAN");
+        line("X-WR-CALNAME:" + escape(name));
+    }
+
+    /** {@code weeklyRule} repeats the event every week, for calendars without concrete dates. */
+    public void event(String uid, Instant stamp, LocalDateTime start, LocalDateTime end,
+                      String summary, String location, String description, boolean weeklyRule) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid);
+        line("DTSTAMP:" + UTC.format(stamp));
+        line("DTSTART:" + LOCAL.format(start));
+        line("DTEND:" + LOCAL.format(end));
+        if (weeklyRule) line("RRULE:FREQ=WEEKLY");
+        line("SUMMARY:" + escape(summary));
+        if (location != null) line("LOCATION:" + escape(location));
+        if (description != null) line("DESCRIPTION:" + escape(description));
+        line("END:VEVENT");
+    }
+
+    public void endCalendar() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+
+    // Content lines longer than 75 octets continue on lines starting with a space
+    private void line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int cp = content.codePointAt(i);
+            int size = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4; // UTF-8 octets
+            if (octets + size > MAX_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(Character.toChars(cp));
+            octets += size;
+            i += Character.charCount(cp);
+        }
+        out.write("\r\n");
+    }
+}
@@ -0,0 +1,244 @@
+package vv.pms.presentation.internal;
+
+import org.springframework.stereotype.Component;
+import vv.pms.allocation.ProjectAllocation;
+import vv.pms.common.AfterCommitBuffer;
+import vv.pms.presentation.PresentationSlot;
+import vv.pms.presentation.internal.RoomOccupancyIndex.Booking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory professorId / studentId -> per-day bitmask of the bins in which they present, kept
+ * next to {@link RoomOccupancyIndex}. "Is anyone on this team already presenting then?" is an OR
+ * of a few day masks instead of loading every allocation the team members appear in.
+ *
+ * The index is loaded from the bookings and teams on first use. PresentationService and
+ * RoomService keep the bookings current alongside the room index, and PresentationService
+ * feeds it team changes. Writes made inside a transaction are applied once it commits, as in
+ * the room index.
+ */
+@Component
+public class PersonOccupancyIndex {
+
+    private final State committed = new State();
+    private boolean loaded = false;
+    private final AfterCommitBuffer<Pending> pending =
+            new AfterCommitBuffer<>(Pending::new, this::committed, this::rolledBack);
+
+    public synchronized void ensureLoaded(Supplier<? extends Collection<Booking>> bookings,
+                                          Supplier<? extends Collection<ProjectAllocation>> teams) {
+        if (loaded) return;
+        committed.clear();
+        teams.get().forEach(a -> committed.setTeam(a.getProjectId(), a.getProfessorId(), a.getAssignedStudentIds()));
+        bookings.get().forEach(committed::book);
+        loaded = true;
+        // Inside a transaction the loaders also see its uncommitted rows
+        Pending ours = pending.open();
+        if (ours != null) {
+            ours.loaded = true;
+            ours.view = null;
+        }
+    }
+
+    public synchronized void book(PresentationSlot slot) {
+        Booking booking = Booking.of(slot);
+        write(state -> state.book(booking));
+    }
+
+    public synchronized void release(Long projectId) {
+        write(state -> state.release(projectId));
+    }
+
+    public synchronized void removeRoom(Long roomId) {
+        write(state -> state.removeRoom(roomId));
+    }
+
+    /** Records who presents the project; a null professor and no students drop it. */
+    public synchronized void setTeam(Long projectId, Long professorId, Collection<Long> studentIds) {
+        List<Long> students = List.copyOf(studentIds);
+        write(state -> state.setTeam(projectId, professorId, students));
+    }
+
+    public synchronized void invalidate() {
+        loaded = false;
+        committed.clear();
+    }
+
+    /**
+     * Bins, one mask per day for {@code days} days, in which the professor or one of the students
+     * presents a project other than {@code projectId}.
+     */
+    public synchronized long[] busy(Long projectId, Long professorId, Collection<Long> studentIds, int days) {
+        State state = current();
+        long[] busy = new long[days];
+        if (professorId != null) state.professors.markOthers(busy, professorId, projectId, state.bookingByProject);
+        for (Long sid : studentIds) {
+            state.students.markOthers(busy, sid, projectId, state.bookingByProject);
+        }
+        return busy;
+    }
+
+    // Outside a transaction the change is applied at once; inside one it waits for the commit
+    private void write(Consumer<State> change) {
+        Pending ours = pending.open();
+        if (ours == null) {
+            if (loaded) change.accept(committed);
+            return;
+        }
+        ours.changes.add(change);
+        if (ours.view != null) change.accept(ours.view);
+    }
+
+    // The committed state, or for a transaction with its own changes a copy with them applied
+    private State current() {
+        Pending ours = pending.current();
+        if (ours == null || ours.changes.isEmpty()) return committed;
+        if (ours.view == null) {
+            ours.view = committed.copy();
+            ours.changes.forEach(change -> change.accept(ours.view));
+        }
+        return ours.view;
+    }
+
+    private synchronized void committed(Pending ours) {
+        // Not loaded: the next load reads the committed rows anyway
+        if (loaded) ours.changes.forEach(change -> change.accept(committed));
+    }
+
+    private synchronized void rolledBack(Pending ours) {
+        // A load inside the transaction may have picked up rows that are now gone
+        if (ours.loaded) invalidate();
+    }
+
+    private static final class Pending {
+        final List<Consumer<State>> changes = new ArrayList<>();
+        State view;
+        boolean loaded;
+    }
+
+    private record Team(Long professorId, List<Long> studentIds) {}
+
+    // One role's people: the projects each presents in and the bins those bookings take
+    private static final class People {
+        final Map<Long, Set<Long>> projects = new HashMap<>();
+        final Map<Long, long[]> busy = new HashMap<>();
+
+        void link(Long personId, Long projectId) {
+            projects.computeIfAbsent(personId, id -> new HashSet<>()).add(projectId);
+        }
+
+        void unlink(Long personId, Long projectId) {
+            Set<Long> own = projects.get(personId);
+            if (own == null) return;
+            own.remove(projectId);
+            if (own.isEmpty()) projects.remove(personId);
+        }
+
+        void refresh(Long personId, Map<Long, Booking> bookings) {
+            long[] masks = new long[0];
+            for (Long projectId : projects.getOrDefault(personId, Set.of())) {
+                Booking b = bookings.get(projectId);
+                if (b == null) continue;
+                if (b.dayIndex() >= masks.length) masks = Arrays.copyOf(masks, b.dayIndex() + 1);
+                masks[b.dayIndex()] |= DayMasks.range(b.startBinIndex(), b.durationBins());
+            }
+            if (masks.length == 0) busy.remove(personId);
+            else busy.put(personId, masks);
+        }
+
+        // The person's mask, unless they also present projectId: then its bins must not count
+        void markOthers(long[] into, Long personId, Long projectId, Map<Long, Booking> bookings) {
+            long[] masks = busy.get(personId);
+            if (masks == null) return;
+            if (!projects.get(personId).contains(projectId) || !bookings.containsKey(projectId)) {
+                for (int d = 0; d < Math.min(into.length, masks.length); d++) into[d] |= masks[d];
+                return;
+            }
+            for (Long other : projects.get(personId)) {
+                Booking b = bookings.get(other);
+                if (b == null || other.equals(projectId) || b.dayIndex() >= into.length) continue;
+                DayMasks.mark(into, b.dayIndex(), b.startBinIndex(), b.durationBins());
+            }
+        }
+
+        People copy() {
+            People copy = new People();
+            projects.forEach((id, own) -> copy.projects.put(id, new HashSet<>(own)));
+            busy.forEach((id, masks) -> copy.busy.put(id, masks.clone()));
+            return copy;
+        }
+    }
+
+    private static final class State {
+        final Map<Long, Booking> bookingByProject = new HashMap<>();
+        final Map<Long, Team> teamByProject = new HashMap<>();
+        People professors = new People();
+        People students = new People();
+
+        void book(Booking booking) {
+            bookingByProject.put(booking.projectId(), booking);
+            refresh(teamByProject.get(booking.projectId()));
+        }
+
+        void release(Long projectId) {
+            if (bookingByProject.remove(projectId) != null) refresh(teamByProject.get(projectId));
+        }
+
+        void removeRoom(Long roomId) {
+            List<Long> projectIds = bookingByProject.values().stream()
+                    .filter(b -> b.roomId().equals(roomId))
+                    .map(Booking::projectId)
+                    .toList();
+            projectIds.forEach(this::release);
+        }
+
+        void setTeam(Long projectId, Long professorId, List<Long> studentIds) {
+            Team old = teamByProject.remove(projectId);
+            if (old != null) {
+                if (old.professorId() != null) professors.unlink(old.professorId(), projectId);
+                old.studentIds().forEach(sid -> students.unlink(sid, projectId));
+            }
+            Team team = null;
+            if (professorId != null || !studentIds.isEmpty()) {
+                team = new Team(professorId, studentIds);
+                teamByProject.put(projectId, team);
+                if (professorId != null) professors.link(professorId, projectId);
+                studentIds.forEach(sid -> students.link(sid, projectId));
+            }
+            refresh(old);
+            refresh(team);
+        }
+
+        void refresh(Team team) {
+            if (team == null) return;
+            if (team.professorId() != null) professors.refresh(team.professorId(), bookingByProject);
+            team.studentIds().forEach(sid -> students.refresh(sid, bookingByProject));
+        }
+
+        void clear() {
+            bookingByProject.clear();
+            teamByProject.clear();
+            professors = new People();
+            students = new People();
+        }
+
+        State copy() {
+            State copy = new State();
+            copy.bookingByProject.putAll(bookingByProject);
+            copy.teamByProject.putAll(teamByProject);
+            copy.professors = professors.copy();
+            copy.students = students.copy();
+            return copy;
+        }
+    }
+}
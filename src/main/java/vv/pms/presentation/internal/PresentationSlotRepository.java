@@ -1,14 +1,34 @@
 package vv.pms.presentation.internal;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import vv.pms.presentation.PresentationSlot;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PresentationSlotRepository extends JpaRepository<PresentationSlot, Long> {
 
     Optional<PresentationSlot> findByProjectId(Long projectId);
 
     List<PresentationSlot> findByRoomId(Long roomId);
+
+    // Cursor-backed streams in schedule order for calendar export; callers must hold a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT s FROM PresentationSlot s ORDER BY s.dayIndex, s.startBinIndex, s.id")
+    Stream<PresentationSlot> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT s FROM PresentationSlot s WHERE s.roomId = :roomId ORDER BY s.dayIndex, s.startBinIndex, s.id")
+    Stream<PresentationSlot> streamByRoomId(@Param("roomId") Long roomId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT s FROM PresentationSlot s WHERE s.projectId IN :projectIds ORDER BY s.dayIndex, s.startBinIndex, s.id")
+    Stream<PresentationSlot> streamByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
 }
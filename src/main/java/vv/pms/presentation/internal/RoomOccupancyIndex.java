@@ -0,0 +1,227 @@
+package vv.pms.presentation.internal;
+
+import org.springframework.stereotype.Component;
+import vv.pms.common.AfterCommitBuffer;
+import vv.pms.presentation.PresentationSlot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory roomId -> per-day occupancy bitmask index (see {@link DayMasks}), plus the booking
+ * held by each project. Conflict checks and slot search read it instead of scanning
+ * presentation_slots.
+ *
+ * The index is loaded on first use and kept current by PresentationService and RoomService on
+ * every write. {@link #invalidate()} drops everything so the next read reloads from the database.
+ *
+ * Writes made inside a transaction stay private to it: the writing transaction reads its own
+ * changes, everyone else keeps seeing the committed schedule until the changes are applied
+ * after commit. A rollback simply drops them.
+ *
+ * {@link #version()} identifies the published schedule: it changes whenever a write touching
+ * bookings or rooms commits.
+ */
+@Component
+public class RoomOccupancyIndex {
+
+    public record Booking(Long projectId, Long roomId, int dayIndex, int startBinIndex, int durationBins) {
+
+        static Booking of(PresentationSlot slot) {
+            return new Booking(slot.getProjectId(), slot.getRoomId(),
+                    slot.getDayIndex(), slot.getStartBinIndex(), slot.getDurationBins());
+        }
+    }
+
+    private final State committed = new State();
+    private boolean loaded = false;
+    private final AfterCommitBuffer<Pending> pending =
+            new AfterCommitBuffer<>(Pending::new, this::committed, this::rolledBack);
+
+    // Fresh per boot so versions from an earlier run are never mistaken for current ones
+    private final long epoch = System.currentTimeMillis();
+    private long version = 0;
+    private Instant changedAt = Instant.now();
+
+    public synchronized void ensureLoaded(Supplier<? extends Collection<PresentationSlot>> loader) {
+        if (loaded) return;
+        committed.clear();
+        loader.get().forEach(slot -> committed.add(Booking.of(slot)));
+        loaded = true;
+        // Inside a transaction the loader also sees its uncommitted rows
+        Pending ours = pending.open();
+        if (ours != null) {
+            ours.loaded = true;
+            ours.view = null;
+        }
+    }
+
+    /** Records the slot as its project's booking, replacing any earlier one. */
+    public synchronized void book(PresentationSlot slot) {
+        Booking booking = Booking.of(slot);
+        write(state -> state.book(booking));
+    }
+
+    public synchronized void release(Long projectId) {
+        write(state -> state.release(projectId));
+    }
+
+    public synchronized void removeRoom(Long roomId) {
+        write(state -> state.removeRoom(roomId));
+    }
+
+    /**
+     * Marks the current write as changing the published schedule (a room rename, say) without
+     * touching bookings; the version moves on once it commits, or at once outside a transaction.
+     */
+    public synchronized void afterWrite() {
+        write(state -> {});
+    }
+
+    public synchronized String version() {
+        return Long.toString(epoch, 36) + "-" + version;
+    }
+
+    public synchronized Instant changedAt() {
+        return changedAt;
+    }
+
+    public synchronized void invalidate() {
+        loaded = false;
+        committed.clear();
+    }
+
+    public synchronized Optional<Booking> bookingOf(Long projectId) {
+        return Optional.ofNullable(current().bookingByProject.get(projectId));
+    }
+
+    public synchronized Map<Long, Booking> bookings() {
+        return Map.copyOf(current().bookingByProject);
+    }
+
+    /** Occupied bins of the room for {@code days} days, leaving out {@code ignoredProjectId}'s own booking. */
+    public synchronized long[] occupied(Long roomId, Long ignoredProjectId, int days) {
+        State state = current();
+        long[] result = new long[days];
+        long[] occupied = state.occupiedByRoom.get(roomId);
+        if (occupied != null) {
+            System.arraycopy(occupied, 0, result, 0, Math.min(days, occupied.length));
+        }
+        Booking own = ignoredProjectId == null ? null : state.bookingByProject.get(ignoredProjectId);
+        if (own != null && own.roomId().equals(roomId) && own.dayIndex() < days) {
+            result[own.dayIndex()] &= ~DayMasks.range(own.startBinIndex(), own.durationBins());
+        }
+        return result;
+    }
+
+    public synchronized boolean isFree(Long roomId, int dayIndex, int startBinIndex, int durationBins,
+                                       Long ignoredProjectId) {
+        State state = current();
+        long[] occupied = state.occupiedByRoom.get(roomId);
+        if (occupied == null || dayIndex >= occupied.length) return true;
+        long day = occupied[dayIndex];
+        Booking own = ignoredProjectId == null ? null : state.bookingByProject.get(ignoredProjectId);
+        if (own != null && own.roomId().equals(roomId) && own.dayIndex() == dayIndex) {
+            day &= ~DayMasks.range(own.startBinIndex(), own.durationBins());
+        }
+        return (day & DayMasks.range(startBinIndex, durationBins)) == 0;
+    }
+
+    // Outside a transaction the change is published at once; inside one it waits for the commit
+    private void write(Consumer<State> change) {
+        Pending ours = pending.open();
+        if (ours == null) {
+            if (loaded) change.accept(committed);
+            version++;
+            changedAt = Instant.now();
+            return;
+        }
+        ours.changes.add(change);
+        if (ours.view != null) change.accept(ours.view);
+    }
+
+    // The committed state, or for a transaction with its own changes a copy with them applied
+    private State current() {
+        Pending ours = pending.current();
+        if (ours == null || ours.changes.isEmpty()) return committed;
+        if (ours.view == null) {
+            ours.view = committed.copy();
+            ours.changes.forEach(change -> change.accept(ours.view));
+        }
+        return ours.view;
+    }
+
+    private synchronized void committed(Pending ours) {
+        if (ours.changes.isEmpty()) return;
+        // Not loaded: the next load reads the committed rows anyway
+        if (loaded) ours.changes.forEach(change -> change.accept(committed));
+        version++;
+        changedAt = Instant.now();
+    }
+
+    private synchronized void rolledBack(Pending ours) {
+        // A load inside the transaction may have picked up rows that are now gone
+        if (ours.loaded) invalidate();
+    }
+
+    // Changes a transaction has made so far, and its view of the index with them applied
+    private static final class Pending {
+        final List<Consumer<State>> changes = new ArrayList<>();
+        State view;
+        boolean loaded;
+    }
+
+    private static final class State {
+        final Map<Long, long[]> occupiedByRoom = new HashMap<>();
+        final Map<Long, Booking> bookingByProject = new HashMap<>();
+
+        void book(Booking booking) {
+            release(booking.projectId());
+            add(booking);
+        }
+
+        void add(Booking booking) {
+            bookingByProject.put(booking.projectId(), booking);
+            long[] occupied = occupiedByRoom.computeIfAbsent(booking.roomId(), id -> new long[booking.dayIndex() + 1]);
+            if (booking.dayIndex() >= occupied.length) {
+                occupied = Arrays.copyOf(occupied, booking.dayIndex() + 1);
+                occupiedByRoom.put(booking.roomId(), occupied);
+            }
+            occupied[booking.dayIndex()] |= DayMasks.range(booking.startBinIndex(), booking.durationBins());
+        }
+
+        void release(Long projectId) {
+            Booking old = bookingByProject.remove(projectId);
+            if (old == null) return;
+            long[] occupied = occupiedByRoom.get(old.roomId());
+            if (occupied != null && old.dayIndex() < occupied.length) {
+                occupied[old.dayIndex()] &= ~DayMasks.range(old.startBinIndex(), old.durationBins());
+            }
+        }
+
+        void removeRoom(Long roomId) {
+            occupiedByRoom.remove(roomId);
+            bookingByProject.values().removeIf(b -> b.roomId().equals(roomId));
+        }
+
+        void clear() {
+            occupiedByRoom.clear();
+            bookingByProject.clear();
+        }
+
+        State copy() {
+            State copy = new State();
+            occupiedByRoom.forEach((roomId, occupied) -> copy.occupiedByRoom.put(roomId, occupied.clone()));
+            copy.bookingByProject.putAll(bookingByProject);
+            return copy;
+        }
+    }
+}
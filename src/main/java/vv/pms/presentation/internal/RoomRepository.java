@@ -3,7 +3,11 @@ package vv.pms.presentation.internal;
 import org.springframework.data.jpa.repository.JpaRepository;
 import vv.pms.presentation.Room;
 
+import java.util.List;
+
 public interface RoomRepository extends JpaRepository<Room, Long> {
 
     boolean existsByNameIgnoreCase(String name);
+
+    List<Room> findTop200ByLegacyAvailabilityIsNotNull();
 }
@@ -0,0 +1,283 @@
+package vv.pms.presentation.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Schedule-wide presentation solver. Every task (a project's presentation) gets a room, day and
+ * start bin such that no two presentations overlap in a room and nobody attends two at once,
+ * placing as many tasks as possible.
+ *
+ * Depth-first search over the per-(room, day) start masks of {@link DayMasks}: the next task is
+ * the one with the fewest remaining options (MRV), each placement prunes the overlapping starts
+ * from every other open task in that room and from tasks sharing a person in every room
+ * (forward checking), and "leave unscheduled" is tried last. The first
+ * descent is already a constrained-first greedy schedule; the rest of the budget is spent trying to
+ * beat it, and the best schedule seen so far is returned when the budget runs out.
+ *
+ * A task may carry an {@link Anchor} (where it used to be). Its options are then tried closest
+ * first and, among schedules placing equally many tasks, the one moving anchored tasks least wins;
+ * leaving an anchored task out costs more than any move. An anchor's weight scales both, so
+ * heavier anchored tasks are the last to be disturbed.
+ */
+public class ScheduleSolver {
+
+    /**
+     * {@code free} holds one mask per day of bins where everyone involved can attend; tasks whose
+     * {@code people} keys intersect must not overlap in time.
+     */
+    public record Task(Long id, int duration, long[] free, Set<String> people, Anchor anchor) {
+
+        public Task(Long id, int duration, long[] free, Set<String> people) {
+            this(id, duration, free, people, null);
+        }
+    }
+
+    /** Previous placement of a task being repaired; moving it costs {@code weight} times the distance. */
+    public record Anchor(Long venueId, int dayIndex, int startBinIndex, int weight) {
+
+        public Anchor(Long venueId, int dayIndex, int startBinIndex) {
+            this(venueId, dayIndex, startBinIndex, 1);
+        }
+    }
+
+    /** {@code free} holds one mask per day of bins where the room can still be booked. */
+    public record Venue(Long id, long[] free) {}
+
+    public record Placement(Long taskId, Long venueId, int dayIndex, int startBinIndex, int durationBins) {}
+
+    /** {@code optimal} is false when the budget ran out before the search could prove it. */
+    public record Result(List<Placement> placements, List<Long> unscheduled, boolean optimal) {}
+
+    private static final int OPEN = -1;
+    private static final int SKIPPED = -2;
+    private static final long DAY_CHANGE = 256; // more than any in-day shift (2 per bin, 64 bins)
+    private static final long DROPPED = 2 * DAY_CHANGE; // more than any move
+
+    private final int days;
+
+    private List<Task> tasks;
+    private List<Venue> venues;
+    private int cells;
+    private int[][] sharesPerson; // [task] -> other tasks with a professor or student in common
+    private long[][] domain;     // [task][venue * days + day] -> start bits
+    private int[] size;          // popcount of domain[task]
+    private int[] chosen;        // OPEN, SKIPPED or (cell << 6 | start)
+    private int[] best;
+    private int bestCount;
+    private long bestPenalty;
+    private long deadline;
+    private boolean timedOut;
+
+    // Undo trail for forward checking
+    private int[] trailTask = new int[64];
+    private int[] trailCell = new int[64];
+    private long[] trailOld = new long[64];
+    private int trailSize;
+
+    public ScheduleSolver(int days) {
+        this.days = days;
+    }
+
+    public Result solve(List<Task> tasks, List<Venue> venues, Duration budget) {
+        this.tasks = tasks;
+        this.venues = venues;
+        this.cells = venues.size() * days;
+        this.domain = new long[tasks.size()][cells];
+        this.size = new int[tasks.size()];
+        this.chosen = new int[tasks.size()];
+        this.best = new int[tasks.size()];
+        this.bestCount = -1;
+        this.bestPenalty = Long.MAX_VALUE;
+        this.trailSize = 0;
+        this.timedOut = false;
+        this.deadline = System.nanoTime() + budget.toNanos();
+        Arrays.fill(chosen, OPEN);
+        this.sharesPerson = peopleConflicts(tasks);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            for (int v = 0; v < venues.size(); v++) {
+                long[] room = venues.get(v).free();
+                for (int d = 0; d < days; d++) {
+                    long starts = DayMasks.windowStarts(task.free()[d] & room[d], task.duration());
+                    domain[i][v * days + d] = starts;
+                    size[i] += Long.bitCount(starts);
+                }
+            }
+        }
+
+        search(0, 0);
+
+        List<Placement> placements = new ArrayList<>();
+        List<Long> unscheduled = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (best[i] < 0) {
+                unscheduled.add(task.id());
+                continue;
+            }
+            int cell = best[i] >>> 6;
+            placements.add(new Placement(task.id(), venues.get(cell / days).id(),
+                    cell % days, best[i] & 63, task.duration()));
+        }
+        return new Result(placements, unscheduled, !timedOut);
+    }
+
+    private void search(int placed, long penalty) {
+        // The budget only applies once a first complete schedule exists
+        if (bestCount >= 0 && System.nanoTime() > deadline) {
+            timedOut = true;
+            return;
+        }
+
+        int next = -1;
+        int placeable = 0;
+        for (int i = 0; i < chosen.length; i++) {
+            if (chosen[i] != OPEN) continue;
+            if (size[i] > 0) placeable++;
+            if (next == -1 || size[i] < size[next]
+                    || (size[i] == size[next] && tasks.get(i).duration() > tasks.get(next).duration())) {
+                next = i;
+            }
+        }
+
+        if (next == -1) {
+            if (placed > bestCount || (placed == bestCount && penalty < bestPenalty)) {
+                bestCount = placed;
+                bestPenalty = penalty;
+                System.arraycopy(chosen, 0, best, 0, chosen.length);
+            }
+            return;
+        }
+        // Even placing every open task that still has options would not beat the incumbent
+        if (cannotImprove(placed + placeable, penalty)) return;
+
+        int duration = tasks.get(next).duration();
+        for (int value : candidates(next)) {
+            if (timedOut) return;
+            int cell = value >>> 6;
+            int start = value & 63;
+            int mark = trailSize;
+            chosen[next] = value;
+            forwardCheck(next, cell, start, duration);
+            search(placed + 1, penalty + displacement(next, cell, start));
+            undo(mark);
+            chosen[next] = OPEN;
+            if (cannotImprove(placed + placeable, penalty)) return;
+        }
+        if (timedOut) return;
+
+        chosen[next] = SKIPPED;
+        search(placed, penalty + dropped(next));
+        chosen[next] = OPEN;
+    }
+
+    private boolean cannotImprove(int reachable, long penalty) {
+        return reachable < bestCount || (reachable == bestCount && penalty >= bestPenalty);
+    }
+
+    // Remaining options of the task as (cell << 6 | start), nearest to its anchor first
+    private int[] candidates(int task) {
+        int[] values = new int[size[task]];
+        int n = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            for (long starts = domain[task][cell]; starts != 0; starts &= starts - 1) {
+                values[n++] = cell << 6 | Long.numberOfTrailingZeros(starts);
+            }
+        }
+        if (tasks.get(task).anchor() == null) return values;
+        return Arrays.stream(values)
+                .boxed()
+                .sorted(java.util.Comparator.comparingLong(v -> displacement(task, v >>> 6, v & 63)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // Cost of placing an anchored task away from its anchor: another day outweighs any shift
+    // within the day, which outweighs only changing rooms
+    private long displacement(int task, int cell, int start) {
+        Anchor anchor = tasks.get(task).anchor();
+        if (anchor == null) return 0;
+        long cost = anchor.venueId().equals(venues.get(cell / days).id()) ? 0 : 1;
+        cost += anchor.dayIndex() != cell % days ? DAY_CHANGE : 2L * Math.abs(anchor.startBinIndex() - start);
+        return anchor.weight() * cost;
+    }
+
+    private long dropped(int task) {
+        Anchor anchor = tasks.get(task).anchor();
+        return anchor == null ? 0 : anchor.weight() * DROPPED;
+    }
+
+    // Removes the starts that would overlap the placement: in this room and day for every open
+    // task, and on this day in every room for open tasks sharing a person with it
+    private void forwardCheck(int placedTask, int cell, int start, int duration) {
+        for (int j = 0; j < chosen.length; j++) {
+            if (j != placedTask && chosen[j] == OPEN) prune(j, cell, start, duration);
+        }
+        int day = cell % days;
+        for (int j : sharesPerson[placedTask]) {
+            if (chosen[j] != OPEN) continue;
+            for (int other = day; other < cells; other += days) {
+                if (other != cell) prune(j, other, start, duration);
+            }
+        }
+    }
+
+    private void prune(int task, int cell, int start, int duration) {
+        long old = domain[task][cell];
+        if (old == 0) return;
+        int from = Math.max(0, start - tasks.get(task).duration() + 1);
+        long pruned = old & ~DayMasks.range(from, start + duration - from);
+        if (pruned == old) return;
+        record(task, cell, old);
+        domain[task][cell] = pruned;
+        size[task] -= Long.bitCount(old) - Long.bitCount(pruned);
+    }
+
+    private static int[][] peopleConflicts(List<Task> tasks) {
+        Map<String, List<Integer>> byPerson = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            for (String person : tasks.get(i).people()) {
+                byPerson.computeIfAbsent(person, p -> new ArrayList<>()).add(i);
+            }
+        }
+        int[][] conflicts = new int[tasks.size()][];
+        for (int i = 0; i < tasks.size(); i++) {
+            Set<Integer> others = new java.util.TreeSet<>();
+            for (String person : tasks.get(i).people()) others.addAll(byPerson.get(person));
+            others.remove(i);
+            conflicts[i] = others.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return conflicts;
+    }
+
+    private void record(int task, int cell, long old) {
+        if (trailSize == trailTask.length) {
+            int grown = trailSize * 2;
+            trailTask = Arrays.copyOf(trailTask, grown);
+            trailCell = Arrays.copyOf(trailCell, grown);
+            trailOld = Arrays.copyOf(trailOld, grown);
+        }
+        trailTask[trailSize] = task;
+        trailCell[trailSize] = cell;
+        trailOld[trailSize] = old;
+        trailSize++;
+    }
+
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            int task = trailTask[trailSize];
+            int cell = trailCell[trailSize];
+            long current = domain[task][cell];
+            domain[task][cell] = trailOld[trailSize];
+            size[task] += Long.bitCount(trailOld[trailSize]) - Long.bitCount(current);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package vv.pms.project;
 
+import java.util.Collection;
+
 public enum Program {
     COMPUTER_SYSTEMS_ENGINEERING,
     SOFTWARE_ENGINEERING,
@@ -7,5 +9,26 @@ public enum Program {
     CIVIL_ENGINEERING,
     MECHANICAL_ENGINEERING,
     BIOMEDICAL_ENGINEERING,
-    GENERAL_ENGINEERING
+    GENERAL_ENGINEERING;
+
+    /** Single bit identifying this program inside an eligibility mask. */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /** Whether an eligibility mask accepts this program. */
+    public boolean isIn(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    /** Packs a set of programs into an eligibility mask; null or empty gives 0. */
+    public static int maskOf(Collection<Program> programs) {
+        int mask = 0;
+        if (programs != null) {
+            for (Program p : programs) {
+                if (p != null) mask |= p.bit();
+            }
+        }
+        return mask;
+    }
 }
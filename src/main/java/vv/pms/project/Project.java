@@ -21,7 +21,7 @@ public class Project {
     @Column(nullable = false)
     private String description;
 
-    @ElementCollection(targetClass = Program.class, fetch = FetchType.EAGER)
+    @ElementCollection(targetClass = Program.class, fetch = FetchType.LAZY)
     @CollectionTable(name = "topic_program_restrictions", joinColumns = @JoinColumn(name = "topic_id"))
     @Enumerated(EnumType.STRING)
     @Column(name = "program")
@@ -101,7 +101,7 @@ public class Project {
     }
 
     public boolean isProgramAllowed(Program studentProgram) {
-        return this.programRestrictions.contains(studentProgram);
+        return programRestrictions != null && programRestrictions.contains(studentProgram);
     }
 
     public void setTitle(String title) {
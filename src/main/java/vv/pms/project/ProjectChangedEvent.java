@@ -0,0 +1,7 @@
+package vv.pms.project;
+
+/**
+ * Published whenever a project is created, edited, archived or deleted, so other modules
+ * (e.g. allocation) can react without ProjectService depending on them.
+ */
+public record ProjectChangedEvent(Long projectId) {}
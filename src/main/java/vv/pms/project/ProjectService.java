@@ -1,5 +1,6 @@
 package vv.pms.project;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy; // <--- 1. IMPORT LAZY
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -10,12 +11,15 @@ import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import vv.pms.project.internal.ProgramEligibilityIndex;
 import vv.pms.project.internal.ProjectRepository;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -23,6 +27,8 @@ public class ProjectService {
 
     private final ProjectRepository projectRepository;
     private final ProjectOwnershipGateway allocationGateway;
+    private final ProgramEligibilityIndex eligibilityIndex;
+    private final ApplicationEventPublisher events;
 
     @PersistenceContext
     private EntityManager em;
@@ -31,9 +37,13 @@ public class ProjectService {
     // This allows the app to start up without crashing,
     // while the Interface keeps the "Architecture Test" happy.
     public ProjectService(ProjectRepository projectRepository,
-                          @Lazy ProjectOwnershipGateway allocationGateway) {
+                          @Lazy ProjectOwnershipGateway allocationGateway,
+                          ProgramEligibilityIndex eligibilityIndex,
+                          ApplicationEventPublisher events) {
         this.projectRepository = projectRepository;
         this.allocationGateway = allocationGateway;
+        this.eligibilityIndex = eligibilityIndex;
+        this.events = events;
     }
 
     private void checkModificationAuthorization(Long projectId, Long requestingProfessorId, boolean isCoordinator) {
@@ -88,8 +98,10 @@ public class ProjectService {
         Project p = new Project(title, description, programs, requiredStudents);
         em.persist(p);
         em.flush();
+        trackEligibility(p);
 
         allocationGateway.assignProjectOwner(p.getId(), professorId);
+        events.publishEvent(new ProjectChangedEvent(p.getId()));
 
         return p;
     }
@@ -97,7 +109,10 @@ public class ProjectService {
     public Project updateProject(Project project, Long requestingProfessorId, boolean isCoordinator) {
         if (project.getId() == null) throw new IllegalArgumentException("Project id required for update");
         checkModificationAuthorization(project.getId(), requestingProfessorId, isCoordinator);
-        return em.merge(project);
+        Project merged = em.merge(project);
+        trackEligibility(merged);
+        events.publishEvent(new ProjectChangedEvent(merged.getId()));
+        return merged;
     }
 
     public void deleteProject(Long id, Long requestingProfessorId, boolean isCoordinator) {
@@ -105,6 +120,8 @@ public class ProjectService {
         Project p = em.find(Project.class, id);
         if (p != null) {
             em.remove(p);
+            eligibilityIndex.remove(id);
+            events.publishEvent(new ProjectChangedEvent(id));
         } else {
             throw new IllegalArgumentException("Project not found: " + id);
         }
@@ -116,6 +133,48 @@ public class ProjectService {
         if (p == null) throw new IllegalArgumentException("Project not found: " + id);
         p.archive();
         em.merge(p);
+        events.publishEvent(new ProjectChangedEvent(id));
+    }
+
+    /**
+     * Eligibility test backed by the in-memory bitmask index; does not load the project or its
+     * program restrictions.
+     */
+    @Transactional(readOnly = true)
+    public boolean isProgramAllowed(Long projectId, Program program) {
+        return program != null && program.isIn(loadedEligibilityIndex().maskOf(projectId));
+    }
+
+    /** Eligibility masks of the given projects, from the same index; unknown ids map to 0. */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> findProgramMasks(Collection<Long> projectIds) {
+        ProgramEligibilityIndex index = loadedEligibilityIndex();
+        Map<Long, Integer> masks = new HashMap<>();
+        projectIds.forEach(id -> masks.put(id, index.maskOf(id)));
+        return masks;
+    }
+
+    /** IDs of every project that accepts students from the given program. */
+    @Transactional(readOnly = true)
+    public Set<Long> findProjectIdsAllowing(Program program) {
+        return loadedEligibilityIndex().projectsAllowing(program);
+    }
+
+    private ProgramEligibilityIndex loadedEligibilityIndex() {
+        eligibilityIndex.ensureLoaded(() -> {
+            Map<Long, Integer> masks = new HashMap<>();
+            em.createQuery("SELECT p.id, pr FROM Project p LEFT JOIN p.programRestrictions pr", Object[].class)
+                    .getResultList()
+                    .forEach(row -> masks.merge((Long) row[0],
+                            row[1] == null ? 0 : ((Program) row[1]).bit(),
+                            (a, b) -> a | b));
+            return masks;
+        });
+        return eligibilityIndex;
+    }
+
+    private void trackEligibility(Project p) {
+        eligibilityIndex.put(p.getId(), Program.maskOf(p.getProgramRestrictions()));
     }
 
     @Transactional(readOnly = true)
@@ -124,30 +183,29 @@ public class ProjectService {
         ProjectStatus statusEnum = (status != null && !status.isBlank()) ? ProjectStatus.valueOf(status.toUpperCase()) : null;
 
         Map<String, Object> parameters = new HashMap<>();
-        StringBuilder sb = new StringBuilder("SELECT DISTINCT p FROM Project p ");
-        sb.append("LEFT JOIN p.programRestrictions pr WHERE 1=1 ");
+        StringBuilder filters = new StringBuilder("WHERE 1=1 ");
 
         if (programEnum != null) {
-            sb.append("AND pr = :program ");
-            parameters.put("program", programEnum);
+            // Resolve the program filter against the eligibility index instead of joining restrictions
+            Set<Long> eligibleIds = findProjectIdsAllowing(programEnum);
+            if (eligibleIds.isEmpty()) {
+                return new PageImpl<>(List.of(), pageable, 0);
+            }
+            filters.append("AND p.id IN :ids ");
+            parameters.put("ids", eligibleIds);
         }
         if (statusEnum != null) {
-            sb.append("AND p.status = :status ");
+            filters.append("AND p.status = :status ");
             parameters.put("status", statusEnum);
         }
-        sb.append("ORDER BY p.title ASC");
 
-        TypedQuery<Project> dataQuery = em.createQuery(sb.toString(), Project.class);
+        TypedQuery<Project> dataQuery = em.createQuery(
+                "SELECT p FROM Project p " + filters + "ORDER BY p.title ASC", Project.class);
         parameters.forEach(dataQuery::setParameter);
         dataQuery.setFirstResult((int) pageable.getOffset());
         dataQuery.setMaxResults(pageable.getPageSize());
 
-        StringBuilder countSb = new StringBuilder("SELECT COUNT(DISTINCT p) FROM Project p ");
-        countSb.append("LEFT JOIN p.programRestrictions pr WHERE 1=1 ");
-        if (programEnum != null) countSb.append("AND pr = :program ");
-        if (statusEnum != null) countSb.append("AND p.status = :status ");
-
-        TypedQuery<Long> countQuery = em.createQuery(countSb.toString(), Long.class);
+        TypedQuery<Long> countQuery = em.createQuery("SELECT COUNT(p) FROM Project p " + filters, Long.class);
         parameters.forEach(countQuery::setParameter);
 
         List<Project> projects = dataQuery.getResultList();
@@ -0,0 +1,115 @@
+package vv.pms.project.internal;
+
+import org.springframework.stereotype.Component;
+import vv.pms.common.AfterCommitBuffer;
+import vv.pms.project.Program;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory projectId -> program bitmask index. Lets listing and allocation code test
+ * eligibility with a single AND instead of joining topic_program_restrictions per project.
+ *
+ * The index is loaded on first use and kept current by ProjectService on every write.
+ * {@link #invalidate()} drops everything so the next read reloads from the database.
+ *
+ * Writes made inside a transaction are seen by that transaction only and applied once it
+ * commits; a rollback drops them.
+ */
+@Component
+public class ProgramEligibilityIndex {
+
+    private final Map<Long, Integer> masks = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    private final AfterCommitBuffer<Pending> pending =
+            new AfterCommitBuffer<>(Pending::new, ours -> apply(ours.masks), this::rolledBack);
+
+    public void ensureLoaded(Supplier<Map<Long, Integer>> loader) {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            masks.clear();
+            masks.putAll(loader.get());
+            loaded = true;
+        }
+        // Inside a transaction the loader also sees its uncommitted rows
+        Pending ours = pending.open();
+        if (ours != null) ours.loaded = true;
+    }
+
+    public void put(Long projectId, int mask) {
+        if (projectId != null) write(projectId, mask);
+    }
+
+    public void remove(Long projectId) {
+        if (projectId != null) write(projectId, null);
+    }
+
+    public void invalidate() {
+        synchronized (this) {
+            loaded = false;
+            masks.clear();
+        }
+    }
+
+    public int maskOf(Long projectId) {
+        Pending ours = pending.current();
+        if (ours != null && ours.masks.containsKey(projectId)) {
+            Integer mask = ours.masks.get(projectId);
+            return mask == null ? 0 : mask;
+        }
+        return masks.getOrDefault(projectId, 0);
+    }
+
+    public Set<Long> projectsAllowing(Program program) {
+        int bit = program.bit();
+        Set<Long> ids = new HashSet<>();
+        masks.forEach((id, mask) -> {
+            if ((mask & bit) != 0) ids.add(id);
+        });
+        Pending ours = pending.current();
+        if (ours != null) {
+            ours.masks.forEach((id, mask) -> {
+                if (mask != null && (mask & bit) != 0) ids.add(id);
+                else ids.remove(id);
+            });
+        }
+        return ids;
+    }
+
+    // Outside a transaction the change is published at once; inside one it waits for the commit
+    private void write(Long projectId, Integer mask) {
+        Pending ours = pending.open();
+        if (ours == null) {
+            Map<Long, Integer> change = new HashMap<>();
+            change.put(projectId, mask);
+            apply(change);
+            return;
+        }
+        ours.masks.put(projectId, mask);
+    }
+
+    // Taking the lock keeps a commit from landing in the middle of a load
+    private synchronized void apply(Map<Long, Integer> changes) {
+        changes.forEach((id, mask) -> {
+            if (mask == null) masks.remove(id);
+            else masks.put(id, mask);
+        });
+    }
+
+    private void rolledBack(Pending ours) {
+        // A load inside the transaction may have picked up rows that are now gone
+        if (ours.loaded) invalidate();
+    }
+
+    // Masks written by one transaction so far; a null mask marks a removed project
+    private static final class Pending {
+        final Map<Long, Integer> masks = new HashMap<>();
+        boolean loaded;
+    }
+}
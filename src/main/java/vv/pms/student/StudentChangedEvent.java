@@ -0,0 +1,7 @@
+package vv.pms.student;
+
+/**
+ * Published when a student is registered or their profile changes (e.g. program), so other
+ * modules (e.g. allocation) can react without StudentService depending on them.
+ */
+public record StudentChangedEvent(Long studentId) {}
@@ -2,6 +2,7 @@
 
 package vv.pms.student;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vv.pms.student.internal.StudentRepository;
@@ -20,9 +21,11 @@ import vv.pms.project.Program;
 public class StudentService {
 
     private final StudentRepository repository;
+    private final ApplicationEventPublisher events;
 
-    public StudentService(StudentRepository repository) {
+    public StudentService(StudentRepository repository, ApplicationEventPublisher events) {
         this.repository = repository;
+        this.events = events;
     }
 
     /**
@@ -33,8 +36,9 @@ public class StudentService {
             throw new IllegalArgumentException("Student ID " + studentId + " already exists.");
         }
 
-        Student newStudent = new Student(name, studentId, email, program);
-        return repository.save(newStudent);
+        Student newStudent = repository.save(new Student(name, studentId, email, program));
+        events.publishEvent(new StudentChangedEvent(newStudent.getId()));
+        return newStudent;
     }
 
     /**
@@ -71,6 +75,15 @@ public class StudentService {
         repository.save(student);
     }
 
+    /**
+     * Sets the project status for many students with a single UPDATE ... WHERE id IN (...).
+     * Used by bulk allocation runs instead of one update per student.
+     */
+    public void updateProjectStatuses(Set<Long> studentIds, boolean hasProject) {
+        if (studentIds == null || studentIds.isEmpty()) return;
+        repository.updateHasProject(studentIds, hasProject);
+    }
+
     /** Finds all Students for a given set of IDs and returns them in a Map for fast lookups. */
     @Transactional(readOnly = true)
     public Map<Long, Student> findByIds(Set<Long> ids) {
@@ -106,6 +119,8 @@ public class StudentService {
         s.setStudentId(studentId);
         s.setEmail(email);
         s.setProgram(program);
-        return repository.save(s);
+        Student saved = repository.save(s);
+        events.publishEvent(new StudentChangedEvent(saved.getId()));
+        return saved;
     }
 }
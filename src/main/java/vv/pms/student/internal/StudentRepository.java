@@ -1,9 +1,13 @@
 package vv.pms.student.internal;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import vv.pms.student.Student;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +15,9 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     List<Student> findByHasProjectFalse();
     Optional<Student> findByStudentId(String studentId);
     Optional<Student> findByEmail(String email);
+
+    // Set-based flag update for bulk allocation runs; clears the context so later reads see the new value
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.hasProject = :hasProject WHERE s.id IN :ids")
+    int updateHasProject(@Param("ids") Collection<Long> ids, @Param("hasProject") boolean hasProject);
 }
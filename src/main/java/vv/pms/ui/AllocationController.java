@@ -3,6 +3,7 @@ package vv.pms.ui;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RestController;
 import vv.pms.allocation.AllocationService;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -102,5 +104,126 @@ public class AllocationController {
         }
     }
 
+    @GetMapping("/preferences")
+    public ResponseEntity<Map<String, Object>> getPreferences(HttpSession session) {
+        Map<String, Object> resp = new HashMap<>();
+        Long studentId = currentStudentId(session, resp);
+        if (studentId == null) {
+            return ResponseEntity.status((HttpStatus) resp.remove("status")).body(resp);
+        }
+
+        resp.put("projectIds", allocationService.findPreferences(studentId)
+                .map(p -> p.getRankedProjectIds())
+                .orElse(List.of()));
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * Stores the student's ranked project list (most preferred first). Seats are not claimed here;
+     * they are settled together by the STABLE allocation run.
+     */
+    @PostMapping("/preferences")
+    public ResponseEntity<Map<String, Object>> savePreferences(@RequestParam List<Long> projectIds, HttpSession session) {
+        Map<String, Object> resp = new HashMap<>();
+        Long studentId = currentStudentId(session, resp);
+        if (studentId == null) {
+            return ResponseEntity.status((HttpStatus) resp.remove("status")).body(resp);
+        }
+
+        try {
+            resp.put("projectIds", allocationService.savePreferences(studentId, projectIds).getRankedProjectIds());
+            resp.put("message", "saved");
+            return ResponseEntity.ok(resp);
+        } catch (RuntimeException e) {
+            resp.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(resp);
+        }
+    }
+
+    @GetMapping("/waitlist")
+    public ResponseEntity<Map<String, Object>> getWaitlistPosition(@RequestParam Long projectId, HttpSession session) {
+        Map<String, Object> resp = new HashMap<>();
+        Long studentId = currentStudentId(session, resp);
+        if (studentId == null) {
+            return ResponseEntity.status((HttpStatus) resp.remove("status")).body(resp);
+        }
+
+        List<Long> waitlist = allocationService.findWaitlist(projectId);
+        resp.put("position", waitlist.indexOf(studentId) + 1);
+        resp.put("length", waitlist.size());
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * Queues the student for a full project instead of retrying /apply; they are promoted
+     * automatically when a seat frees up.
+     */
+    @PostMapping("/waitlist")
+    public ResponseEntity<Map<String, Object>> joinWaitlist(@RequestParam Long projectId, HttpSession session) {
+        Map<String, Object> resp = new HashMap<>();
+        Long studentId = currentStudentId(session, resp);
+        if (studentId == null) {
+            return ResponseEntity.status((HttpStatus) resp.remove("status")).body(resp);
+        }
+
+        try {
+            allocationService.joinWaitlist(projectId, studentId);
+            resp.put("message", "waitlisted");
+            resp.put("position", allocationService.findWaitlistPosition(projectId, studentId));
+            return ResponseEntity.ok(resp);
+        } catch (RuntimeException e) {
+            resp.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(resp);
+        }
+    }
+
+    @PostMapping("/waitlist/leave")
+    public ResponseEntity<Map<String, Object>> leaveWaitlist(@RequestParam Long projectId, HttpSession session) {
+        Map<String, Object> resp = new HashMap<>();
+        Long studentId = currentStudentId(session, resp);
+        if (studentId == null) {
+            return ResponseEntity.status((HttpStatus) resp.remove("status")).body(resp);
+        }
+
+        try {
+            allocationService.leaveWaitlist(projectId, studentId);
+            resp.put("message", "left waitlist");
+            return ResponseEntity.ok(resp);
+        } catch (RuntimeException e) {
+            resp.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(resp);
+        }
+    }
+
+    // Resolves the logged-in student, or fills resp with an error and its status and returns null
+    private Long currentStudentId(HttpSession session, Map<String, Object> resp) {
+        if (session == null) {
+            resp.put("error", "Not authenticated");
+            resp.put("status", HttpStatus.UNAUTHORIZED);
+            return null;
+        }
+
+        Object roleObj = session.getAttribute("currentUserRole");
+        if (roleObj == null || !"STUDENT".equalsIgnoreCase(roleObj.toString())) {
+            resp.put("error", "Only students may use this endpoint");
+            resp.put("status", HttpStatus.FORBIDDEN);
+            return null;
+        }
 
+        Object idObj = session.getAttribute("currentUserId");
+        if (idObj == null) {
+            resp.put("error", "Missing user id in session");
+            resp.put("status", HttpStatus.UNAUTHORIZED);
+            return null;
+        }
+
+        try {
+            if (idObj instanceof Number) return ((Number) idObj).longValue();
+            return Long.parseLong(idObj.toString());
+        } catch (Exception e) {
+            resp.put("error", "Invalid user id in session");
+            resp.put("status", HttpStatus.BAD_REQUEST);
+            return null;
+        }
+    }
 }
@@ -3,8 +3,11 @@ package vv.pms.ui;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import vv.pms.allocation.AllocationMode;
 import vv.pms.allocation.AllocationService;
 import vv.pms.allocation.ProjectAllocation;
+import vv.pms.job.Job;
+import vv.pms.job.JobService;
 import vv.pms.professor.ProfessorService;
 import vv.pms.project.ProjectService;
 import vv.pms.student.StudentService;
@@ -12,6 +15,7 @@ import vv.pms.student.Student;
 import vv.pms.project.Project;
 
 import java.util.List;
+import java.util.UUID;
 
 @Controller
 @RequestMapping("/allocations")
@@ -21,19 +25,29 @@ public class AllocationUI {
     private final ProfessorService professorService;
     private final ProjectService projectService;
     private final StudentService studentService;
+    private final JobService jobService;
 
     public AllocationUI(AllocationService allocationService,
                         ProfessorService professorService,
                         ProjectService projectService,
-                        StudentService studentService) {
+                        StudentService studentService,
+                        JobService jobService) {
         this.allocationService = allocationService;
         this.professorService = professorService;
         this.projectService = projectService;
         this.studentService = studentService;
+        this.jobService = jobService;
     }
 
     @GetMapping
-    public String listAllocations(Model model) {
+    public String showAllocations(@RequestParam(value = "job", required = false) UUID jobId, Model model) {
+        if (jobId != null) {
+            jobService.findJob(jobId).ifPresent(job -> model.addAttribute("job", job));
+        }
+        return listAllocations(model);
+    }
+
+    private String listAllocations(Model model) {
         List<ProjectAllocation> allocations = allocationService.findAllAllocations();
         List<Project> projects = projectService.findAllProjects();
         var professors = professorService.findAllProfessors();
@@ -56,6 +70,7 @@ public class AllocationUI {
         model.addAttribute("projects", projects);
         model.addAttribute("professors", professors);
         model.addAttribute("students", students);
+        model.addAttribute("modes", AllocationMode.values());
         return "allocations";
     }
 
@@ -110,8 +125,30 @@ public class AllocationUI {
     }
 
     @PostMapping("/best-effort")
-    public String runBestEffort(Model model) {
-        allocationService.runBestEffortAllocation();
-        return "redirect:/allocations";
+    public String runBestEffort(@RequestParam(defaultValue = "GREEDY") AllocationMode mode, Model model) {
+        try {
+            Job job = jobService.submit("allocation", mode.name(), progress -> allocationService.runAllocation(mode, progress));
+            return "redirect:/allocations?job=" + job.getId();
+        } catch (JobService.JobRejectedException | JobService.JobConflictException e) {
+            model.addAttribute("error", e.getMessage());
+            return listAllocations(model);
+        }
+    }
+
+    @PostMapping("/preview")
+    public String previewBestEffort(@RequestParam(defaultValue = "GREEDY") AllocationMode mode, Model model) {
+        model.addAttribute("plan", allocationService.previewAllocation(mode));
+        return listAllocations(model);
+    }
+
+    @PostMapping("/plans/{planId}/commit")
+    public String commitPlan(@PathVariable UUID planId, Model model) {
+        try {
+            allocationService.commitPlan(planId);
+            return "redirect:/allocations";
+        } catch (RuntimeException e) {
+            model.addAttribute("error", e.getMessage());
+            return listAllocations(model);
+        }
     }
 }
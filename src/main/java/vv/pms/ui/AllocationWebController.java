@@ -3,19 +3,28 @@ package vv.pms.ui;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import vv.pms.allocation.AllocationMode;
+import vv.pms.allocation.AllocationPlan;
 import vv.pms.allocation.AllocationService;
+import vv.pms.allocation.BulkAssignmentResult;
 import vv.pms.allocation.ProjectAllocation;
+import vv.pms.job.Job;
+import vv.pms.job.JobService;
 
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/allocations")
 public class AllocationWebController {
 
     private final AllocationService allocationService;
+    private final JobService jobService;
 
-    public AllocationWebController(AllocationService allocationService) {
+    public AllocationWebController(AllocationService allocationService, JobService jobService) {
         this.allocationService = allocationService;
+        this.jobService = jobService;
     }
 
     @GetMapping
@@ -65,6 +74,15 @@ public class AllocationWebController {
         }
     }
 
+    // All-or-nothing: 200 with the assigned pairs, or 409 listing every rejected pair and nothing written
+    @PostMapping("/students/bulk")
+    public ResponseEntity<BulkAssignmentResult> assignStudentsInBulk(@RequestBody List<AllocationPlan.Placement> pairs) {
+        BulkAssignmentResult result = allocationService.assignStudentsInBulk(pairs);
+        return result.isSuccess()
+                ? ResponseEntity.ok(result)
+                : ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+    }
+
     @DeleteMapping("/{projectId}/students/{studentId}")
     public ResponseEntity<?> unassignStudent(@PathVariable Long projectId,
                                              @PathVariable Long studentId) {
@@ -77,9 +95,43 @@ public class AllocationWebController {
         }
     }
 
+    // Runs in the background; poll the returned job at /api/jobs/{id}. A run of the same mode already in
+    // progress is returned instead; a run of another mode is a 409.
     @PostMapping("/best-effort")
-    public ResponseEntity<?> runBestEffortAllocation() {
-        allocationService.runBestEffortAllocation();
-        return ResponseEntity.ok("Best-effort allocation completed.");
+    public ResponseEntity<?> runBestEffortAllocation(@RequestParam(defaultValue = "GREEDY") AllocationMode mode) {
+        try {
+            Job job = jobService.submit("allocation", mode.name(), progress -> allocationService.runAllocation(mode, progress));
+            return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+        } catch (JobService.JobConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .location(URI.create("/api/jobs/" + e.getActive().getId()))
+                    .body(e.getMessage());
+        } catch (JobService.JobRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    // Dry run: returns the plan (adds, moves, unfilled seats, unplaced students) without writing
+    @PostMapping("/preview")
+    public AllocationPlan previewAllocation(@RequestParam(defaultValue = "GREEDY") AllocationMode mode) {
+        return allocationService.previewAllocation(mode);
+    }
+
+    @GetMapping("/plans/{planId}")
+    public ResponseEntity<AllocationPlan> findPlan(@PathVariable UUID planId) {
+        return allocationService.findPlan(planId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/plans/{planId}/commit")
+    public ResponseEntity<?> commitPlan(@PathVariable UUID planId) {
+        try {
+            return ResponseEntity.ok(allocationService.commitPlan(planId));
+        } catch (AllocationService.AllocationNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (AllocationService.AllocationStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 }
@@ -9,15 +9,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import vv.pms.availability.Availability;
 import vv.pms.availability.AvailabilityService;
+import vv.pms.availability.SchedulingCalendar;
+import vv.pms.ui.records.AvailabilityForm;
 
 @Controller
 @RequestMapping("/availability")
 public class AvailabilityController {
 
     private final AvailabilityService availabilityService;
+    private final SchedulingCalendar calendar;
 
-    public AvailabilityController(AvailabilityService availabilityService) {
+    public AvailabilityController(AvailabilityService availabilityService, SchedulingCalendar calendar) {
         this.availabilityService = availabilityService;
+        this.calendar = calendar;
     }
 
     @GetMapping
@@ -34,16 +38,17 @@ public class AvailabilityController {
         }
 
         Availability availability = availabilityService.getAvailability(userId, userRole);
-        model.addAttribute("availability", availability);
+        // Form copy laid out on the current calendar, whatever shape was stored
+        model.addAttribute("availability", new AvailabilityForm(calendar.fit(availability.getTimeslots())));
 
-        model.addAttribute("days", new String[]{"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"});
-        model.addAttribute("timeSlots", generateTimeLabels());
+        model.addAttribute("days", calendar.dayNames());
+        model.addAttribute("timeSlots", calendar.binLabels());
 
         return "availability";
     }
 
     @PostMapping
-    public String updateAvailability(HttpSession session, @ModelAttribute Availability availabilityForm) {
+    public String updateAvailability(HttpSession session, @ModelAttribute("availability") AvailabilityForm availabilityForm) {
         Long userId = (Long) session.getAttribute("currentUserId");
         String userRole = (String) session.getAttribute("currentUserRole");
 
@@ -55,34 +60,8 @@ public class AvailabilityController {
             return "redirect:/home";
         }
 
-        availabilityService.updateAvailability(userId, userRole, availabilityForm.getTimeslots());
+        availabilityService.updateAvailability(userId, userRole, calendar.fit(availabilityForm.toGrid()));
 
         return "redirect:/availability?success";
     }
-
-    private String[] generateTimeLabels() {
-        String[] labels = new String[16];
-        int hour = 8;
-        int min = 0;
-
-        for (int i = 0; i < 16; i++) {
-            int endMin = min + 30;
-            int endHour = hour;
-
-            if (endMin >= 60) {
-                endMin -= 60;
-                endHour++;
-            }
-
-            labels[i] = String.format("%02d:%02d-%02d:%02d", hour, min, endHour, endMin);
-
-            min += 30;
-            if (min >= 60) {
-                min -= 60;
-                hour++;
-            }
-        }
-
-        return labels;
-    }
 }
\ No newline at end of file
@@ -101,6 +101,11 @@ public class CoordinatorController {
 
         model.addAttribute("students", studentViews);
         model.addAttribute("programs", Program.values());
+        // Narrow the project filter to projects the selected program can actually join
+        if (programEnum != null) {
+            Set<Long> eligibleIds = projectService.findProjectIdsAllowing(programEnum);
+            allProjects = allProjects.stream().filter(p -> eligibleIds.contains(p.getId())).toList();
+        }
         model.addAttribute("projects", allProjects);
         model.addAttribute("selectedStatus", normalizedStatus);
         model.addAttribute("selectedProgram", program);
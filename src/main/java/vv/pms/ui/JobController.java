@@ -0,0 +1,33 @@
+package vv.pms.ui;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import vv.pms.job.Job;
+import vv.pms.job.JobService;
+
+import java.util.List;
+import java.util.UUID;
+
+// Progress polling for background allocation / scheduling runs
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @GetMapping
+    public List<Job> findAll() {
+        return jobService.findJobs();
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Job> findJob(@PathVariable UUID jobId) {
+        return jobService.findJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,76 @@
+package vv.pms.ui;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vv.pms.presentation.PresentationCalendarService;
+import vv.pms.presentation.PresentationCalendarService.Feed;
+
+import java.util.Arrays;
+
+// Subscribable .ics feeds of the presentation schedule; a person's feed needs their feed token
+@RestController
+@RequestMapping("/presentations/calendar")
+public class PresentationCalendarController {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    private final PresentationCalendarService calendarService;
+
+    public PresentationCalendarController(PresentationCalendarService calendarService) {
+        this.calendarService = calendarService;
+    }
+
+    @GetMapping("/all.ics")
+    public ResponseEntity<StreamingResponseBody> all(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return feed(Feed.ALL, null, "presentations.ics", ifNoneMatch);
+    }
+
+    @GetMapping("/rooms/{roomId}.ics")
+    public ResponseEntity<StreamingResponseBody> room(@PathVariable Long roomId,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return feed(Feed.ROOM, roomId, "room-" + roomId + ".ics", ifNoneMatch);
+    }
+
+    @GetMapping("/professors/{professorId}.ics")
+    public ResponseEntity<StreamingResponseBody> professor(@PathVariable Long professorId,
+                                                           @RequestParam(value = "token", required = false) String token,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!calendarService.isFeedToken(Feed.PROFESSOR, professorId, token)) return ResponseEntity.notFound().build();
+        return feed(Feed.PROFESSOR, professorId, "professor-" + professorId + ".ics", ifNoneMatch);
+    }
+
+    @GetMapping("/students/{studentId}.ics")
+    public ResponseEntity<StreamingResponseBody> student(@PathVariable Long studentId,
+                                                         @RequestParam(value = "token", required = false) String token,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!calendarService.isFeedToken(Feed.STUDENT, studentId, token)) return ResponseEntity.notFound().build();
+        return feed(Feed.STUDENT, studentId, "student-" + studentId + ".ics", ifNoneMatch);
+    }
+
+    // An unchanged schedule is answered with 304 before anything is queried or rendered
+    private ResponseEntity<StreamingResponseBody> feed(Feed feed, Long id, String filename, String ifNoneMatch) {
+        String etag = calendarService.scheduleETag();
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(TEXT_CALENDAR)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
+                .body(out -> calendarService.writeCalendar(feed, id, out));
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+}
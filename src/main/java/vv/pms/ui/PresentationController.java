@@ -4,13 +4,14 @@ import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import vv.pms.job.Job;
+import vv.pms.job.JobService;
+import vv.pms.presentation.PresentationCalendarService;
+import vv.pms.presentation.PresentationCalendarService.Feed;
 import vv.pms.presentation.PresentationService;
-import vv.pms.presentation.Room;
 import vv.pms.presentation.RoomService;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.UUID;
 
 @Controller
 @RequestMapping("/presentations")
@@ -18,16 +19,23 @@ public class PresentationController {
 
     private final PresentationService presentationService;
     private final RoomService roomService;
+    private final JobService jobService;
+    private final PresentationCalendarService calendarService;
 
     public PresentationController(PresentationService presentationService,
-                                  RoomService roomService) {
+                                  RoomService roomService,
+                                  JobService jobService,
+                                  PresentationCalendarService calendarService) {
         this.presentationService = presentationService;
         this.roomService = roomService;
+        this.jobService = jobService;
+        this.calendarService = calendarService;
     }
 
     @GetMapping
     public String showPresentations(HttpSession session, Model model,
-                                    @RequestParam(value = "error", required = false) String error) {
+                                    @RequestParam(value = "error", required = false) String error,
+                                    @RequestParam(value = "job", required = false) UUID jobId) {
 
         Object roleObj = session.getAttribute("currentUserRole");
         if (roleObj == null) {
@@ -38,34 +46,34 @@ public class PresentationController {
         model.addAttribute("currentUserRole", session.getAttribute("currentUserRole"));
 
 
-        List<Room> rooms = roomService.getAllRooms();
-        var rows = presentationService.buildPresentationRows();
-
-        Map<Long, List<PresentationService.SlotOption>> slotOptionsByProject = new HashMap<>();
-        for (var row : rows) {
-            Long roomId = row.roomId();
-            if (roomId != null) {
-                slotOptionsByProject.put(
-                        row.projectId(),
-                        presentationService.getAvailableSlots(row.projectId(), roomId)
-                );
-            } else if (!rooms.isEmpty()) {
-                Long defaultRoomId = rooms.get(0).getId();
-                slotOptionsByProject.put(
-                        row.projectId(),
-                        presentationService.getAvailableSlots(row.projectId(), defaultRoomId)
-                );
-            }
-        }
+        var board = presentationService.buildPresentationBoard();
 
-        model.addAttribute("rooms", rooms);
-        model.addAttribute("rows", rows);
-        model.addAttribute("slotOptionsByProject", slotOptionsByProject);
+        model.addAttribute("rooms", board.rooms());
+        model.addAttribute("rows", board.rows());
+        model.addAttribute("slotOptionsByProject", board.slotOptionsByProject());
         model.addAttribute("error", error);
+        if (jobId != null) {
+            jobService.findJob(jobId).ifPresent(job -> model.addAttribute("job", job));
+        }
+        model.addAttribute("calendarFeedUrl", calendarFeedUrl(session));
 
         return "presentations";
     }
 
+    // The logged-in professor's or student's own feed, with the token that unlocks it
+    private String calendarFeedUrl(HttpSession session) {
+        Long userId = (Long) session.getAttribute("currentUserId");
+        String role = (String) session.getAttribute("currentUserRole");
+        if (userId == null || role == null) return null;
+        if ("PROFESSOR".equalsIgnoreCase(role)) {
+            return "/presentations/calendar/professors/" + userId + ".ics?token=" + calendarService.feedToken(Feed.PROFESSOR, userId);
+        }
+        if ("STUDENT".equalsIgnoreCase(role)) {
+            return "/presentations/calendar/students/" + userId + ".ics?token=" + calendarService.feedToken(Feed.STUDENT, userId);
+        }
+        return null;
+    }
+
     // ---------- Rooms ----------
 
     @PostMapping("/rooms/add")
@@ -122,7 +130,11 @@ public class PresentationController {
 
     @PostMapping("/auto")
     public String autoAssign() {
-        presentationService.runBestEffortAllocation();
-        return "redirect:/presentations";
+        try {
+            Job job = jobService.submit("presentation-schedule", presentationService::runBestEffortAllocation);
+            return "redirect:/presentations?job=" + job.getId();
+        } catch (JobService.JobRejectedException e) {
+            return "redirect:/presentations?error=" + e.getMessage().replace(" ", "%20");
+        }
     }
 }
\ No newline at end of file
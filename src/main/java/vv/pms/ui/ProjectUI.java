@@ -239,6 +239,8 @@ public class ProjectUI {
         model.addAttribute("currentUserAssigned", currentUserAssigned);
         model.addAttribute("currentUserIsAssignedProfessor", currentUserIsAssignedProfessor);
         model.addAttribute("spotsAvailable", spotsAvailable);
+        model.addAttribute("waitlistPosition", currentUserIsStudent && currentUserId != null
+                ? allocationService.findWaitlistPosition(id, currentUserId) : 0);
         model.addAttribute("reportDeadline", systemConfigService.getReportDeadline().orElse(null));
 
         // Report Info
@@ -336,6 +338,38 @@ public class ProjectUI {
         }
     }
 
+    @PostMapping("/waitlist")
+    public String joinWaitlist(@RequestParam Long projectId, HttpSession session, RedirectAttributes redirectAttributes) {
+        Long studentId = session == null || !isStudent(session) ? null : getCurrentUserId(session);
+        if (studentId == null) {
+            redirectAttributes.addFlashAttribute("applyError", "Only students may join a waitlist.");
+            return "redirect:/projects/details/" + projectId;
+        }
+
+        try {
+            allocationService.joinWaitlist(projectId, studentId);
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("applyError", e.getMessage());
+        }
+        return "redirect:/projects/details/" + projectId;
+    }
+
+    @PostMapping("/waitlist/leave")
+    public String leaveWaitlist(@RequestParam Long projectId, HttpSession session, RedirectAttributes redirectAttributes) {
+        Long studentId = session == null || !isStudent(session) ? null : getCurrentUserId(session);
+        if (studentId == null) {
+            redirectAttributes.addFlashAttribute("applyError", "Only students may leave a waitlist.");
+            return "redirect:/projects/details/" + projectId;
+        }
+
+        try {
+            allocationService.leaveWaitlist(projectId, studentId);
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("applyError", e.getMessage());
+        }
+        return "redirect:/projects/details/" + projectId;
+    }
+
     // --- HELPER METHODS FOR SESSION ---
     private Long getCurrentUserId(HttpSession session) {
         Object idObj = session.getAttribute("currentUserId");
@@ -344,6 +378,11 @@ public class ProjectUI {
         return null;
     }
 
+    private boolean isStudent(HttpSession session) {
+        Object roleObj = session.getAttribute("currentUserRole");
+        return roleObj != null && "STUDENT".equalsIgnoreCase(roleObj.toString());
+    }
+
     private boolean isCoordinator(HttpSession session) {
         Object roleObj = session.getAttribute("currentUserRole");
         return roleObj != null && "COORDINATOR".equalsIgnoreCase(roleObj.toString());
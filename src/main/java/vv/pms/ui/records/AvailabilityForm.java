@@ -0,0 +1,18 @@
+package vv.pms.ui.records;
+
+import vv.pms.availability.AvailabilityGrid;
+
+// Boxed days x bins cells as bound from the availability page's per-cell selects
+public class AvailabilityForm {
+
+    private Boolean[][] timeslots;
+
+    public AvailabilityForm() {}
+
+    public AvailabilityForm(AvailabilityGrid grid) { this.timeslots = grid.toMatrix(); }
+
+    public Boolean[][] getTimeslots() { return timeslots; }
+    public void setTimeslots(Boolean[][] timeslots) { this.timeslots = timeslots; }
+
+    public AvailabilityGrid toGrid() { return AvailabilityGrid.of(timeslots); }
+}
@@ -0,0 +1,50 @@
+package vv.pms.allocation.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProfessorLoadBalancerTest {
+
+    @Mock
+    private ProjectAllocationRepository repository;
+
+    @Test
+    void next_picksLeastLoadedProfessorFirst() {
+        List<Object[]> counts = new ArrayList<>();
+        counts.add(new Object[] { 1L, 3L });
+        when(repository.countAllocationsPerProfessor()).thenReturn(counts);
+
+        ProfessorLoadBalancer.Round round = new ProfessorLoadBalancer(repository, 0).start(List.of(1L, 2L));
+
+        assertEquals(Optional.of(2L), round.next());
+        assertEquals(Optional.of(2L), round.next());
+        assertEquals(Optional.of(2L), round.next());
+        assertEquals(Optional.of(1L), round.next());
+    }
+
+    @Test
+    void next_isEmptyOnceEveryProfessorReachesTheCap() {
+        List<Object[]> counts = new ArrayList<>();
+        counts.add(new Object[] { 1L, 1L });
+        when(repository.countAllocationsPerProfessor()).thenReturn(counts);
+
+        ProfessorLoadBalancer.Round round = new ProfessorLoadBalancer(repository, 2).start(List.of(1L, 2L));
+
+        assertEquals(Optional.of(2L), round.next());
+        assertEquals(Optional.of(1L), round.next());
+        assertEquals(Optional.of(2L), round.next());
+        // Both professors now own two projects: the remaining projects stay unowned
+        assertTrue(round.next().isEmpty());
+        assertTrue(round.next().isEmpty());
+    }
+}
@@ -0,0 +1,78 @@
+package vv.pms.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityGridTest {
+
+    @Test
+    void ofTreatsMissingAndNullAsBusy() {
+        Boolean[][] matrix = { { true, null, true }, null };
+
+        AvailabilityGrid grid = AvailabilityGrid.of(matrix).fit(3, 4);
+
+        assertArrayEquals(new long[] { 0b101L, 0L, 0L }, grid.masks());
+        assertArrayEquals(new Boolean[] { true, false, true, false }, grid.toMatrix()[0]);
+    }
+
+    @Test
+    void gridsAreImmutable() {
+        AvailabilityGrid grid = AvailabilityGrid.full(2, 4);
+        long[] masks = grid.masks();
+        masks[0] = 0L;
+
+        AvailabilityGrid changed = grid.with(0, 1, false);
+
+        assertEquals(8, grid.popcount());
+        assertEquals(7, changed.popcount());
+        assertFalse(changed.isFree(0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> grid.with(2, 0, true));
+    }
+
+    @Test
+    void andAndOrCombineDayByDay() {
+        AvailabilityGrid a = AvailabilityGrid.ofMasks(4, 0b0011L, 0b1111L);
+        AvailabilityGrid b = AvailabilityGrid.ofMasks(4, 0b0110L, 0b0000L);
+
+        assertEquals(AvailabilityGrid.ofMasks(4, 0b0010L, 0L), a.and(b));
+        assertEquals(AvailabilityGrid.ofMasks(4, 0b0111L, 0b1111L), a.or(b));
+        assertEquals(1, a.and(b).popcount());
+        assertEquals(2, a.popcount(0));
+    }
+
+    @Test
+    void firstFitFindsEarliestWindow() {
+        AvailabilityGrid grid = AvailabilityGrid.ofMasks(8, 0b0110_0110L, 0b0111_0000L);
+
+        assertEquals(Optional.of(new AvailabilityGrid.Window(0, 1, 2)), grid.firstFit(2));
+        assertEquals(Optional.of(new AvailabilityGrid.Window(1, 4, 3)), grid.firstFit(3));
+        assertTrue(grid.firstFit(4).isEmpty());
+        assertTrue(grid.isFree(1, 4, 3));
+        assertFalse(grid.isFree(1, 3, 3));
+    }
+
+    @Test
+    void freeRangesAreMaximalRuns() {
+        AvailabilityGrid grid = AvailabilityGrid.ofMasks(64, 0b1101L, 0L, -1L);
+
+        assertEquals(List.of(
+                new AvailabilityGrid.Window(0, 0, 1),
+                new AvailabilityGrid.Window(0, 2, 2),
+                new AvailabilityGrid.Window(2, 0, 64)), grid.freeRanges());
+    }
+
+    @Test
+    void fitPadsAndTrims() {
+        AvailabilityGrid grid = AvailabilityGrid.ofMasks(6, 0b111101L);
+
+        AvailabilityGrid fitted = grid.fit(2, 4);
+
+        assertEquals(AvailabilityGrid.ofMasks(4, 0b1101L, 0L), fitted);
+        assertSame(fitted, fitted.fit(2, 4));
+        assertThrows(IllegalArgumentException.class, () -> AvailabilityGrid.empty(1, 65));
+    }
+}
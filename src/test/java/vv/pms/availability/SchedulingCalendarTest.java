@@ -0,0 +1,59 @@
+package vv.pms.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulingCalendarTest {
+
+    @Test
+    void defaultsToGenericWeekOfHalfHours() {
+        SchedulingCalendar calendar = new SchedulingCalendar("", "", "08:00", "16:00", 30);
+
+        assertEquals(5, calendar.days());
+        assertEquals(16, calendar.bins());
+        assertEquals("Monday", calendar.dayName(0));
+        assertEquals("Friday", calendar.dayName(4));
+        assertNull(calendar.dateOf(0));
+        assertEquals("Monday 08:00-09:00", calendar.describe(0, 0, 2));
+        assertEquals("15:30-16:00", calendar.binLabels().get(15));
+    }
+
+    @Test
+    void dateRangeSkipsWeekends() {
+        // Two weeks starting on a Monday, 15-minute bins
+        SchedulingCalendar calendar = new SchedulingCalendar(
+                LocalDate.of(2026, 4, 13), LocalDate.of(2026, 4, 24),
+                LocalTime.of(9, 0), LocalTime.of(17, 0), 15);
+
+        assertEquals(10, calendar.days());
+        assertEquals(32, calendar.bins());
+        assertEquals(LocalDate.of(2026, 4, 20), calendar.dateOf(5));
+        assertEquals("Monday 2026-04-20 09:15-09:45", calendar.describe(5, 1, 2));
+    }
+
+    @Test
+    void rejectsGridsThatDoNotFitADayMask() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SchedulingCalendar("", "", "08:00", "16:00", 7));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SchedulingCalendar("", "", "00:00", "23:00", 15));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SchedulingCalendar("2026-04-18", "2026-04-19", "08:00", "16:00", 30));
+    }
+
+    @Test
+    void fitPadsAndTrimsStoredMatrices() {
+        SchedulingCalendar calendar = new SchedulingCalendar("", "", "08:00", "10:00", 30);
+        Boolean[][] stored = { { true, null, true, true, true, true } };
+
+        Boolean[][] fitted = calendar.fit(AvailabilityGrid.of(stored)).toMatrix();
+
+        assertEquals(5, fitted.length);
+        assertArrayEquals(new Boolean[] { true, false, true, true }, fitted[0]);
+        assertArrayEquals(new Boolean[] { false, false, false, false }, fitted[4]);
+    }
+}
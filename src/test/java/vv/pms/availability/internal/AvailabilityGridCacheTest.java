@@ -0,0 +1,86 @@
+package vv.pms.availability.internal;
+
+import org.junit.jupiter.api.Test;
+import vv.pms.availability.AvailabilityCacheStats;
+import vv.pms.availability.AvailabilityGrid;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityGridCacheTest {
+
+    private static final AvailabilityGridCache.Key ALICE = new AvailabilityGridCache.Key(1L, "STUDENT");
+    private static final AvailabilityGridCache.Key BOB = new AvailabilityGridCache.Key(2L, "STUDENT");
+    private static final AvailabilityGridCache.Key CAROL = new AvailabilityGridCache.Key(3L, "PROFESSOR");
+
+    private final AvailabilityGrid grid = AvailabilityGrid.full(5, 16);
+
+    @Test
+    void countsHitsAndMisses() {
+        AvailabilityGridCache cache = new AvailabilityGridCache(10, Duration.ofMinutes(5), Clock.systemUTC());
+
+        assertTrue(cache.get(ALICE).isEmpty());
+        cache.put(ALICE, grid, cache.generation());
+        cache.put(BOB, null, cache.generation());
+
+        assertEquals(grid, cache.get(ALICE).orElseThrow().grid());
+        assertNull(cache.get(BOB).orElseThrow().grid());
+        assertEquals(new AvailabilityCacheStats(2, 1, 0, 2), cache.stats());
+        assertEquals(2.0 / 3, cache.stats().hitRate(), 1e-9);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        AvailabilityGridCache cache = new AvailabilityGridCache(2, Duration.ofMinutes(5), Clock.systemUTC());
+        cache.put(ALICE, grid, cache.generation());
+        cache.put(BOB, grid, cache.generation());
+        cache.get(ALICE);
+
+        cache.put(CAROL, grid, cache.generation());
+
+        assertTrue(cache.get(BOB).isEmpty());
+        assertTrue(cache.get(ALICE).isPresent());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        MutableClock clock = new MutableClock();
+        AvailabilityGridCache cache = new AvailabilityGridCache(10, Duration.ofSeconds(30), clock);
+        cache.put(ALICE, grid, cache.generation());
+
+        clock.now = clock.now.plusSeconds(29);
+        assertTrue(cache.get(ALICE).isPresent());
+        clock.now = clock.now.plusSeconds(2);
+        assertTrue(cache.get(ALICE).isEmpty());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void loadsStartedBeforeAnEvictionAreNotCached() {
+        AvailabilityGridCache cache = new AvailabilityGridCache(10, Duration.ofMinutes(5), Clock.systemUTC());
+        long loadedAt = cache.generation();
+
+        cache.evict(ALICE);
+        cache.put(ALICE, grid, loadedAt);
+
+        assertTrue(cache.get(ALICE).isEmpty());
+    }
+
+    private static class MutableClock extends Clock {
+        Instant now = Instant.parse("2026-01-05T08:00:00Z");
+
+        @Override
+        public ZoneOffset getZone() { return ZoneOffset.UTC; }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) { return this; }
+
+        @Override
+        public Instant instant() { return now; }
+    }
+}
@@ -2,6 +2,7 @@ package vv.pms.entity;
 
 import org.junit.jupiter.api.Test;
 import vv.pms.availability.Availability;
+import vv.pms.availability.AvailabilityGrid;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,7 +22,7 @@ class AvailabilityTest {
     void testParameterizedConstructor() {
         Long userId = 1L;
         String userType = "STUDENT";
-        Boolean[][] timeslots = new Boolean[5][32];
+        AvailabilityGrid timeslots = AvailabilityGrid.empty(5, 32);
         
         Availability availability = new Availability(userId, userType, timeslots);
         
@@ -36,13 +37,11 @@ class AvailabilityTest {
         
         availability.setUserId(1L);
         availability.setUserType("PROFESSOR");
-        Boolean[][] timeslots = new Boolean[5][32];
-        timeslots[0][0] = true;
-        availability.setTimeslots(timeslots);
+        availability.setTimeslots(AvailabilityGrid.empty(5, 32).with(0, 0, true));
         
         assertEquals(1L, availability.getUserId());
         assertEquals("PROFESSOR", availability.getUserType());
-        assertTrue(availability.getTimeslots()[0][0]);
+        assertTrue(availability.getTimeslots().isFree(0, 0));
     }
 
     @Test
@@ -55,23 +54,23 @@ class AvailabilityTest {
             }
         }
         
-        Availability availability = new Availability(1L, "STUDENT", timeslots);
+        Availability availability = new Availability(1L, "STUDENT", AvailabilityGrid.of(timeslots));
         
         // Verify matrix structure
-        assertEquals(5, availability.getTimeslots().length);
-        assertEquals(32, availability.getTimeslots()[0].length);
+        assertEquals(5, availability.getTimeslots().days());
+        assertEquals(32, availability.getTimeslots().bins());
         
         // Verify pattern
-        assertTrue(availability.getTimeslots()[0][0]);   // 0+0 = 0 (even)
-        assertFalse(availability.getTimeslots()[0][1]);  // 0+1 = 1 (odd)
-        assertFalse(availability.getTimeslots()[1][0]);  // 1+0 = 1 (odd)
-        assertTrue(availability.getTimeslots()[1][1]);   // 1+1 = 2 (even)
+        assertTrue(availability.getTimeslots().isFree(0, 0));   // 0+0 = 0 (even)
+        assertFalse(availability.getTimeslots().isFree(0, 1));  // 0+1 = 1 (odd)
+        assertFalse(availability.getTimeslots().isFree(1, 0));  // 1+0 = 1 (odd)
+        assertTrue(availability.getTimeslots().isFree(1, 1));   // 1+1 = 2 (even)
     }
 
     @Test
     void testUserTypeValues() {
-        Availability studentAvail = new Availability(1L, "STUDENT", new Boolean[5][32]);
-        Availability professorAvail = new Availability(2L, "PROFESSOR", new Boolean[5][32]);
+        Availability studentAvail = new Availability(1L, "STUDENT", AvailabilityGrid.empty(5, 32));
+        Availability professorAvail = new Availability(2L, "PROFESSOR", AvailabilityGrid.empty(5, 32));
         
         assertEquals("STUDENT", studentAvail.getUserType());
         assertEquals("PROFESSOR", professorAvail.getUserType());
@@ -136,4 +135,35 @@ class AvailabilityTest {
             }
         }
     }
+
+    @Test
+    void testDayBitsConverterRoundTrip() {
+        Availability.DayBitsConverter converter = new Availability.DayBitsConverter();
+        AvailabilityGrid original = AvailabilityGrid.ofMasks(64, 0x8000_0000_0000_0001L, 0L, -1L, 0x0F0FL, 42L);
+
+        byte[] bits = converter.convertToDatabaseColumn(original);
+
+        assertEquals(1 + 5 * Long.BYTES, bits.length);
+        assertEquals(original, converter.convertToEntityAttribute(bits));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void testDayBitsConverterIsFarSmallerThanJson() {
+        AvailabilityGrid grid = AvailabilityGrid.empty(5, 32);
+
+        int json = new Availability.MatrixConverter().convertToDatabaseColumn(grid.toMatrix()).length();
+        int bits = new Availability.DayBitsConverter().convertToDatabaseColumn(grid).length;
+
+        assertTrue(json > 20 * bits, json + " vs " + bits);
+    }
+
+    @Test
+    void testDayBitsConverterRejectsMalformedBytes() {
+        Availability.DayBitsConverter converter = new Availability.DayBitsConverter();
+
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute(new byte[4]));
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute(new byte[] { 65, 0, 0, 0, 0, 0, 0, 0, 0 }));
+    }
 }
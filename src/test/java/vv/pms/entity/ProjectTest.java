@@ -189,4 +189,31 @@ class ProjectTest {
         assertTrue(project.isProgramAllowed(Program.ELECTRICAL_ENGINEERING));
         assertTrue(project.isProgramAllowed(Program.MECHANICAL_ENGINEERING));
     }
+
+    @Test
+    void testProgramMask() {
+        int mask = Program.maskOf(Set.of(Program.SOFTWARE_ENGINEERING, Program.CIVIL_ENGINEERING));
+
+        assertEquals(Program.SOFTWARE_ENGINEERING.bit() | Program.CIVIL_ENGINEERING.bit(), mask);
+        assertTrue(Program.CIVIL_ENGINEERING.isIn(mask));
+        assertFalse(Program.ELECTRICAL_ENGINEERING.isIn(mask));
+    }
+
+    @Test
+    void testNoRestrictionsAllowNoProgram() {
+        Project project = new Project("Test", "Desc", Set.of(Program.SOFTWARE_ENGINEERING), 2);
+
+        project.setProgramRestrictions(null);
+
+        assertFalse(project.isProgramAllowed(Program.SOFTWARE_ENGINEERING));
+        assertFalse(project.isProgramAllowed(null));
+    }
+
+    @Test
+    void testProgramBitsAreDistinct() {
+        int all = Program.maskOf(Set.of(Program.values()));
+
+        assertEquals(Program.values().length, Integer.bitCount(all));
+        assertEquals(0, Program.maskOf(null));
+    }
 }
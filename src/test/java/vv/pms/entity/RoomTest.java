@@ -1,6 +1,7 @@
 package vv.pms.entity;
 
 import org.junit.jupiter.api.Test;
+import vv.pms.availability.AvailabilityGrid;
 import vv.pms.presentation.Room;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,13 +26,13 @@ class RoomTest {
         assertNotNull(room.getAvailability());
         
         // Check default full availability (5 days x 16 bins, all true)
-        Boolean[][] availability = room.getAvailability();
-        assertEquals(5, availability.length);
-        assertEquals(16, availability[0].length);
+        AvailabilityGrid availability = room.getAvailability();
+        assertEquals(5, availability.days());
+        assertEquals(16, availability.bins());
         
         for (int d = 0; d < 5; d++) {
             for (int t = 0; t < 16; t++) {
-                assertTrue(availability[d][t], "Default availability should be true");
+                assertTrue(availability.isFree(d, t), "Default availability should be true");
             }
         }
     }
@@ -45,10 +46,10 @@ class RoomTest {
             }
         }
         
-        Room room = new Room("Conference Room A", customAvailability);
+        Room room = new Room("Conference Room A", AvailabilityGrid.of(customAvailability));
         
         assertEquals("Conference Room A", room.getName());
-        assertArrayEquals(customAvailability, room.getAvailability());
+        assertArrayEquals(customAvailability, room.getAvailability().toMatrix());
     }
 
     @Test
@@ -57,13 +58,11 @@ class RoomTest {
         
         room.setId(1L);
         room.setName("Lab 200");
-        Boolean[][] availability = new Boolean[5][16];
-        availability[0][0] = true;
-        room.setAvailability(availability);
+        room.setAvailability(AvailabilityGrid.empty(5, 16).with(0, 0, true));
         
         assertEquals(1L, room.getId());
         assertEquals("Lab 200", room.getName());
-        assertTrue(room.getAvailability()[0][0]);
+        assertTrue(room.getAvailability().isFree(0, 0));
     }
 
     @Test
@@ -78,33 +77,32 @@ class RoomTest {
     @Test
     void testAvailabilityMatrixDimensions() {
         Room room = new Room("Test Room");
-        Boolean[][] availability = room.getAvailability();
+        AvailabilityGrid availability = room.getAvailability();
         
         // 5 days (Mon-Fri)
-        assertEquals(5, availability.length);
+        assertEquals(5, availability.days());
         
         // 16 bins (30-min bins from 08:00-16:00)
-        for (Boolean[] dayAvailability : availability) {
-            assertEquals(16, dayAvailability.length);
-        }
+        assertEquals(16, availability.bins());
+        assertEquals(5 * 16, availability.popcount());
     }
 
     @Test
     void testSetPartialAvailability() {
         Room room = new Room("Partially Available Room");
-        Boolean[][] availability = room.getAvailability();
+        AvailabilityGrid availability = room.getAvailability();
         
         // Block Monday morning (bins 0-3 = 8:00-10:00)
         for (int t = 0; t < 4; t++) {
-            availability[0][t] = false;
+            availability = availability.with(0, t, false);
         }
         room.setAvailability(availability);
         
-        assertFalse(room.getAvailability()[0][0]);
-        assertFalse(room.getAvailability()[0][1]);
-        assertFalse(room.getAvailability()[0][2]);
-        assertFalse(room.getAvailability()[0][3]);
-        assertTrue(room.getAvailability()[0][4]); // Still available from 10:00
+        assertFalse(room.getAvailability().isFree(0, 0));
+        assertFalse(room.getAvailability().isFree(0, 1));
+        assertFalse(room.getAvailability().isFree(0, 2));
+        assertFalse(room.getAvailability().isFree(0, 3));
+        assertTrue(room.getAvailability().isFree(0, 4)); // Still available from 10:00
     }
 
     @Test
@@ -116,11 +114,11 @@ class RoomTest {
             }
         }
         
-        Room room = new Room("Unavailable Room", noAvailability);
+        Room room = new Room("Unavailable Room", AvailabilityGrid.of(noAvailability));
         
         for (int d = 0; d < 5; d++) {
             for (int t = 0; t < 16; t++) {
-                assertFalse(room.getAvailability()[d][t]);
+                assertFalse(room.getAvailability().isFree(d, t));
             }
         }
     }
@@ -131,10 +129,11 @@ class RoomTest {
         Room room2 = new Room("Room 2");
         
         // Modify room1's availability
-        room1.getAvailability()[0][0] = false;
+        room1.setAvailability(room1.getAvailability().with(0, 0, false));
         
         // Room2 should still have full availability
-        assertTrue(room2.getAvailability()[0][0]);
+        assertFalse(room1.getAvailability().isFree(0, 0));
+        assertTrue(room2.getAvailability().isFree(0, 0));
     }
 
     @Test
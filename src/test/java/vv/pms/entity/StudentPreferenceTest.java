@@ -0,0 +1,54 @@
+package vv.pms.entity;
+
+import org.junit.jupiter.api.Test;
+import vv.pms.allocation.StudentPreference;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentPreferenceTest {
+
+    @Test
+    void testDefaultConstructor() {
+        StudentPreference preference = new StudentPreference();
+
+        assertNull(preference.getId());
+        assertNull(preference.getStudentId());
+        assertNotNull(preference.getRankedProjectIds());
+        assertTrue(preference.getRankedProjectIds().isEmpty());
+    }
+
+    @Test
+    void testParameterizedConstructor() {
+        StudentPreference preference = new StudentPreference(1L, List.of(30L, 10L, 20L));
+
+        assertEquals(1L, preference.getStudentId());
+        assertEquals(List.of(30L, 10L, 20L), preference.getRankedProjectIds());
+    }
+
+    @Test
+    void testDuplicatesKeepFirstRank() {
+        StudentPreference preference = new StudentPreference(1L, List.of(30L, 10L, 30L, 20L, 10L));
+
+        assertEquals(List.of(30L, 10L, 20L), preference.getRankedProjectIds());
+    }
+
+    @Test
+    void testSetRankedProjectIdsReplacesRanking() {
+        StudentPreference preference = new StudentPreference(1L, List.of(1L, 2L));
+
+        preference.setRankedProjectIds(List.of(3L));
+
+        assertEquals(List.of(3L), preference.getRankedProjectIds());
+    }
+
+    @Test
+    void testSetRankedProjectIdsNullClears() {
+        StudentPreference preference = new StudentPreference(1L, List.of(1L, 2L));
+
+        preference.setRankedProjectIds(null);
+
+        assertTrue(preference.getRankedProjectIds().isEmpty());
+    }
+}
@@ -0,0 +1,28 @@
+package vv.pms.entity;
+
+import org.junit.jupiter.api.Test;
+import vv.pms.allocation.WaitlistEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistEntryTest {
+
+    @Test
+    void testDefaultConstructor() {
+        WaitlistEntry entry = new WaitlistEntry();
+
+        assertNull(entry.getId());
+        assertNull(entry.getProjectId());
+        assertNull(entry.getStudentId());
+        assertNull(entry.getJoinedAt());
+    }
+
+    @Test
+    void testParameterizedConstructor() {
+        WaitlistEntry entry = new WaitlistEntry(10L, 20L);
+
+        assertEquals(10L, entry.getProjectId());
+        assertEquals(20L, entry.getStudentId());
+        assertNotNull(entry.getJoinedAt());
+    }
+}
@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import vv.pms.allocation.AllocationMode;
+import vv.pms.allocation.AllocationPlan;
 import vv.pms.allocation.AllocationService;
+import vv.pms.allocation.BulkAssignmentResult;
 import vv.pms.allocation.ProjectAllocation;
+import vv.pms.allocation.StudentPreference;
 import vv.pms.professor.Professor;
 import vv.pms.professor.ProfessorService;
 import vv.pms.project.Program;
@@ -19,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -143,6 +148,39 @@ class AllocationServiceIntegrationTest {
         );
     }
 
+    @Test
+    void assignStudentsInBulk_assignsEveryPair() {
+        BulkAssignmentResult result = allocationService.assignStudentsInBulk(List.of(
+                new AllocationPlan.Placement(student1.getId(), project.getId()),
+                new AllocationPlan.Placement(student2.getId(), project.getId())));
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.assigned().size());
+        assertEquals(List.of(student1.getId(), student2.getId()), allocationService.findStudentsByProjectId(project.getId()));
+        assertTrue(studentService.findStudentById(student2.getId()).orElseThrow().isHasProject());
+    }
+
+    @Test
+    void assignStudentsInBulk_reportsEveryFailureAndWritesNothing() {
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+        Student eeStudent = studentService.addStudent("EE Student", "S004", "ee@test.com", Program.ELECTRICAL_ENGINEERING);
+
+        BulkAssignmentResult result = allocationService.assignStudentsInBulk(List.of(
+                new AllocationPlan.Placement(student1.getId(), project.getId()),
+                new AllocationPlan.Placement(eeStudent.getId(), project.getId()),
+                new AllocationPlan.Placement(student2.getId(), project.getId()),
+                new AllocationPlan.Placement(student3.getId(), project.getId()),
+                new AllocationPlan.Placement(student1.getId(), -1L)));
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.assigned().isEmpty());
+        assertEquals(List.of(eeStudent.getId(), student3.getId(), student1.getId()),
+                result.failures().stream().map(BulkAssignmentResult.Failure::studentId).toList());
+        assertTrue(result.failures().get(1).reason().contains("full"));
+        assertTrue(allocationService.findStudentsByProjectId(project.getId()).isEmpty());
+        assertFalse(studentService.findStudentById(student1.getId()).orElseThrow().isHasProject());
+    }
+
     @Test
     void unassignStudentFromProject_success() {
         allocationService.assignStudentToProject(project.getId(), student1.getId());
@@ -171,6 +209,72 @@ class AllocationServiceIntegrationTest {
         assertTrue(allocation.isEmpty());
     }
 
+    @Test
+    void removeProfessorAllocation_releasesStudents() {
+        allocationService.assignStudentToProject(project.getId(), student1.getId());
+
+        allocationService.removeProfessorAllocation(project.getId());
+
+        assertFalse(studentService.findStudentById(student1.getId()).orElseThrow().isHasProject());
+    }
+
+    @Test
+    void joinWaitlist_openSeats_throws() {
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+
+        assertThrows(AllocationService.AllocationStateException.class, () ->
+                allocationService.joinWaitlist(project.getId(), student3.getId())
+        );
+    }
+
+    @Test
+    void unassignStudentFromProject_promotesWaitlistInOrder() {
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+        Student student4 = studentService.addStudent("Student Four", "S004", "s4@test.com", Program.SOFTWARE_ENGINEERING);
+        allocationService.assignStudentToProject(project.getId(), student1.getId());
+        allocationService.assignStudentToProject(project.getId(), student2.getId());
+        allocationService.joinWaitlist(project.getId(), student3.getId());
+        allocationService.joinWaitlist(project.getId(), student4.getId());
+        assertEquals(2, allocationService.findWaitlistPosition(project.getId(), student4.getId()));
+
+        allocationService.unassignStudentFromProject(project.getId(), student1.getId());
+
+        assertEquals(List.of(student2.getId(), student3.getId()), allocationService.findStudentsByProjectId(project.getId()));
+        assertTrue(studentService.findStudentById(student3.getId()).orElseThrow().isHasProject());
+        assertEquals(List.of(student4.getId()), allocationService.findWaitlist(project.getId()));
+    }
+
+    @Test
+    void unassignStudentFromProject_skipsStudentsPlacedElsewhere() {
+        Project other = projectService.addProject("Other", "Desc", Set.of(Program.SOFTWARE_ENGINEERING), 1, professor.getId());
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+        Student student4 = studentService.addStudent("Student Four", "S004", "s4@test.com", Program.SOFTWARE_ENGINEERING);
+        allocationService.assignStudentToProject(project.getId(), student1.getId());
+        allocationService.assignStudentToProject(project.getId(), student2.getId());
+        allocationService.joinWaitlist(project.getId(), student3.getId());
+        allocationService.joinWaitlist(project.getId(), student4.getId());
+        allocationService.runAllocation(AllocationMode.GREEDY);
+
+        allocationService.unassignStudentFromProject(project.getId(), student1.getId());
+
+        assertEquals(List.of(student3.getId()), allocationService.findStudentsByProjectId(other.getId()));
+        assertEquals(List.of(student2.getId(), student4.getId()), allocationService.findStudentsByProjectId(project.getId()));
+        assertTrue(allocationService.findWaitlist(project.getId()).isEmpty());
+    }
+
+    @Test
+    void assignProfessorToProject_promotesKeptWaitlist() {
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+        allocationService.assignStudentToProject(project.getId(), student1.getId());
+        allocationService.assignStudentToProject(project.getId(), student2.getId());
+        allocationService.joinWaitlist(project.getId(), student3.getId());
+
+        allocationService.removeProfessorAllocation(project.getId());
+        allocationService.assignProfessorToProject(project.getId(), professor.getId());
+
+        assertEquals(List.of(student3.getId()), allocationService.findStudentsByProjectId(project.getId()));
+    }
+
     @Test
     void findAllocationByStudentId_success() {
         allocationService.assignStudentToProject(project.getId(), student1.getId());
@@ -181,6 +285,23 @@ class AllocationServiceIntegrationTest {
         assertEquals(project.getId(), allocation.get().getProjectId());
     }
 
+    @Test
+    void findAllocationByStudentId_returnsWholeTeam() {
+        allocationService.assignStudentToProject(project.getId(), student1.getId());
+        allocationService.assignStudentToProject(project.getId(), student2.getId());
+
+        ProjectAllocation allocation = allocationService.findAllocationByStudentId(student2.getId()).orElseThrow();
+
+        assertEquals(List.of(student1.getId(), student2.getId()), allocation.getAssignedStudentIds());
+    }
+
+    @Test
+    void findAllocationByStudentId_unassigned_isEmpty() {
+        allocationService.assignStudentToProject(project.getId(), student1.getId());
+
+        assertTrue(allocationService.findAllocationByStudentId(student2.getId()).isEmpty());
+    }
+
     @Test
     void findStudentsByProjectId_success() {
         allocationService.assignStudentToProject(project.getId(), student1.getId());
@@ -238,6 +359,254 @@ class AllocationServiceIntegrationTest {
         assertTrue(allocatedStudents.size() > 0);
     }
 
+    @Test
+    void runAllocation_optimal_fillsEverySeatItCan() {
+        Project broad = projectService.addProject(
+                "Broad Project",
+                "Open to two programs",
+                Set.of(Program.SOFTWARE_ENGINEERING, Program.ELECTRICAL_ENGINEERING),
+                1,
+                professor.getId()
+        );
+        Student eeStudent = studentService.addStudent("EE Student", "S004", "ee@test.com", Program.ELECTRICAL_ENGINEERING);
+
+        allocationService.runAllocation(AllocationMode.OPTIMAL);
+
+        List<Long> seStudents = allocationService.findStudentsByProjectId(project.getId());
+        assertEquals(2, seStudents.size());
+        assertTrue(seStudents.containsAll(List.of(student1.getId(), student2.getId())));
+        assertEquals(List.of(eeStudent.getId()), allocationService.findStudentsByProjectId(broad.getId()));
+        assertTrue(studentService.findStudentById(eeStudent.getId()).orElseThrow().isHasProject());
+    }
+
+    @Test
+    void runAllocation_optimal_respectsRestrictionsAndCapacity() {
+        Student eeStudent = studentService.addStudent("EE Student", "S004", "ee@test.com", Program.ELECTRICAL_ENGINEERING);
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+
+        allocationService.runAllocation(AllocationMode.OPTIMAL);
+
+        List<Long> assigned = allocationService.findStudentsByProjectId(project.getId());
+        assertEquals(2, assigned.size());
+        assertFalse(assigned.contains(eeStudent.getId()));
+        assertFalse(studentService.findStudentById(eeStudent.getId()).orElseThrow().isHasProject());
+        assertEquals(1, studentService.findStudentsWithoutProject().stream()
+                .filter(s -> s.getProgram() == Program.SOFTWARE_ENGINEERING)
+                .count());
+    }
+
+    @Test
+    void runAllocation_partitioned_solvesEachComponent() {
+        Project eeProject = projectService.addProject(
+                "EE Project",
+                "Electrical only",
+                Set.of(Program.ELECTRICAL_ENGINEERING),
+                1,
+                professor.getId()
+        );
+        Student eeStudent = studentService.addStudent("EE Student", "S004", "ee@test.com", Program.ELECTRICAL_ENGINEERING);
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+
+        AllocationPlan plan = allocationService.runAllocation(AllocationMode.PARTITIONED);
+
+        assertEquals(3, plan.adds().size());
+        assertEquals(List.of(student3.getId()), plan.unplacedStudentIds());
+        assertEquals(List.of(eeStudent.getId()), allocationService.findStudentsByProjectId(eeProject.getId()));
+        assertEquals(2, allocationService.findStudentsByProjectId(project.getId()).size());
+    }
+
+    @Test
+    void runAllocation_spreadsUnownedProjectsAcrossProfessors() {
+        Professor other = professorService.addProfessor("Prof. Other", "prof.other@university.edu");
+        Project second = projectService.addProject("Second", "Desc", Set.of(Program.SOFTWARE_ENGINEERING), 1, professor.getId());
+        Project third = projectService.addProject("Third", "Desc", Set.of(Program.SOFTWARE_ENGINEERING), 1, professor.getId());
+        allocationService.removeProfessorAllocation(second.getId());
+        allocationService.removeProfessorAllocation(third.getId());
+
+        AllocationPlan plan = allocationService.runAllocation(AllocationMode.GREEDY);
+
+        assertEquals(List.of(
+                new AllocationPlan.OwnerAssignment(second.getId(), other.getId()),
+                new AllocationPlan.OwnerAssignment(third.getId(), professor.getId())), plan.newOwners());
+        assertEquals(2, allocationService.findProjectsByProfessorId(professor.getId()).size());
+        assertEquals(1, allocationService.findProjectsByProfessorId(other.getId()).size());
+    }
+
+    @Test
+    void runAllocation_incremental_withoutBaseline_runsFull() {
+        AllocationPlan plan = allocationService.runAllocation(AllocationMode.INCREMENTAL);
+
+        assertEquals(2, plan.adds().size());
+        assertEquals(2, allocationService.findStudentsByProjectId(project.getId()).size());
+    }
+
+    @Test
+    void runAllocation_incremental_refillsFreedSeat() {
+        allocationService.runAllocation(AllocationMode.OPTIMAL);
+        allocationService.unassignStudentFromProject(project.getId(), student1.getId());
+
+        AllocationPlan plan = allocationService.runAllocation(AllocationMode.INCREMENTAL);
+
+        assertEquals(List.of(new AllocationPlan.Placement(student1.getId(), project.getId())), plan.adds());
+        assertTrue(plan.unplacedStudentIds().isEmpty());
+        assertTrue(studentService.findStudentById(student1.getId()).orElseThrow().isHasProject());
+    }
+
+    @Test
+    void runAllocation_incremental_picksUpCapacityChange() {
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+        allocationService.runAllocation(AllocationMode.OPTIMAL);
+        assertFalse(studentService.findStudentById(student3.getId()).orElseThrow().isHasProject());
+
+        Project bigger = projectService.findProjectById(project.getId()).orElseThrow();
+        bigger.setRequiredStudents(3);
+        projectService.updateProject(bigger, professor.getId(), false);
+
+        AllocationPlan plan = allocationService.runAllocation(AllocationMode.INCREMENTAL);
+
+        assertEquals(List.of(new AllocationPlan.Placement(student3.getId(), project.getId())), plan.adds());
+        assertEquals(3, allocationService.findStudentsByProjectId(project.getId()).size());
+    }
+
+    @Test
+    void savePreferences_success() {
+        StudentPreference preference = allocationService.savePreferences(student1.getId(), List.of(project.getId()));
+
+        assertEquals(List.of(project.getId()), preference.getRankedProjectIds());
+        assertEquals(List.of(project.getId()),
+                allocationService.findPreferences(student1.getId()).orElseThrow().getRankedProjectIds());
+    }
+
+    @Test
+    void savePreferences_unknownProject_throws() {
+        assertThrows(AllocationService.ProjectNotFoundException.class, () ->
+                allocationService.savePreferences(student1.getId(), List.of(-1L))
+        );
+    }
+
+    @Test
+    void runAllocation_stable_honoursRankings() {
+        Project popular = projectService.addProject(
+                "Popular Project",
+                "Everyone wants this one",
+                Set.of(Program.SOFTWARE_ENGINEERING),
+                1,
+                professor.getId()
+        );
+        // Each student gets their first choice when the first choices do not collide
+        allocationService.savePreferences(student1.getId(), List.of(project.getId(), popular.getId()));
+        allocationService.savePreferences(student2.getId(), List.of(popular.getId(), project.getId()));
+
+        allocationService.runAllocation(AllocationMode.STABLE);
+
+        assertEquals(List.of(student2.getId()), allocationService.findStudentsByProjectId(popular.getId()));
+        assertEquals(List.of(student1.getId()), allocationService.findStudentsByProjectId(project.getId()));
+        assertTrue(studentService.findStudentById(student1.getId()).orElseThrow().isHasProject());
+        assertTrue(studentService.findStudentById(student2.getId()).orElseThrow().isHasProject());
+    }
+
+    @Test
+    void runAllocation_stable_contestedSeatGoesToStrongestPreference() {
+        Project popular = projectService.addProject(
+                "Popular Project",
+                "Only one seat",
+                Set.of(Program.SOFTWARE_ENGINEERING),
+                1,
+                professor.getId()
+        );
+        allocationService.savePreferences(student1.getId(), List.of(project.getId(), popular.getId()));
+        allocationService.savePreferences(student2.getId(), List.of(popular.getId()));
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+        allocationService.savePreferences(student3.getId(), List.of(popular.getId()));
+
+        allocationService.runAllocation(AllocationMode.STABLE);
+
+        // student2 and student3 rank it equally; the tie goes to the lower student id
+        assertEquals(List.of(student2.getId()), allocationService.findStudentsByProjectId(popular.getId()));
+        assertFalse(studentService.findStudentById(student3.getId()).orElseThrow().isHasProject());
+    }
+
+    @Test
+    void runAllocation_stable_skipsIneligibleEntries() {
+        Student eeStudent = studentService.addStudent("EE Student", "S004", "ee@test.com", Program.ELECTRICAL_ENGINEERING);
+        allocationService.savePreferences(eeStudent.getId(), List.of(project.getId()));
+
+        allocationService.runAllocation(AllocationMode.STABLE);
+
+        assertFalse(allocationService.findStudentsByProjectId(project.getId()).contains(eeStudent.getId()));
+        assertFalse(studentService.findStudentById(eeStudent.getId()).orElseThrow().isHasProject());
+    }
+
+    @Test
+    void runBestEffortAllocation_respectsCapacityAndSetsFlags() {
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+
+        allocationService.runBestEffortAllocation();
+
+        List<Long> assigned = allocationService.findStudentsByProjectId(project.getId());
+        assertEquals(2, assigned.size());
+        assigned.forEach(id -> assertTrue(studentService.findStudentById(id).orElseThrow().isHasProject()));
+        assertTrue(assigned.containsAll(List.of(student1.getId(), student2.getId())));
+        assertFalse(studentService.findStudentById(student3.getId()).orElseThrow().isHasProject());
+    }
+
+    @Test
+    void previewAllocation_doesNotWrite() {
+        AllocationPlan plan = allocationService.previewAllocation(AllocationMode.OPTIMAL);
+
+        assertEquals(2, plan.adds().size());
+        assertTrue(plan.moves().isEmpty());
+        assertTrue(plan.unplacedStudentIds().isEmpty());
+        assertTrue(allocationService.findStudentsByProjectId(project.getId()).isEmpty());
+        assertFalse(studentService.findStudentById(student1.getId()).orElseThrow().isHasProject());
+        assertTrue(allocationService.findPlan(plan.id()).isPresent());
+    }
+
+    @Test
+    void previewAllocation_reportsUnfilledSeatsAndUnplacedStudents() {
+        Student eeStudent = studentService.addStudent("EE Student", "S004", "ee@test.com", Program.ELECTRICAL_ENGINEERING);
+        allocationService.assignStudentToProject(project.getId(), student1.getId());
+
+        AllocationPlan plan = allocationService.previewAllocation(AllocationMode.GREEDY);
+
+        assertEquals(List.of(new AllocationPlan.Placement(student2.getId(), project.getId())), plan.adds());
+        assertEquals(List.of(eeStudent.getId()), plan.unplacedStudentIds());
+        assertTrue(plan.unfilledSeats().stream().noneMatch(s -> s.projectId().equals(project.getId())));
+    }
+
+    @Test
+    void commitPlan_writesPreviewedPlan() {
+        AllocationPlan plan = allocationService.previewAllocation(AllocationMode.GREEDY);
+
+        allocationService.commitPlan(plan.id());
+
+        List<Long> assigned = allocationService.findStudentsByProjectId(project.getId());
+        assertEquals(2, assigned.size());
+        assertTrue(studentService.findStudentById(student1.getId()).orElseThrow().isHasProject());
+        // A plan can only be committed once
+        assertThrows(AllocationService.AllocationNotFoundException.class, () ->
+                allocationService.commitPlan(plan.id())
+        );
+    }
+
+    @Test
+    void commitPlan_stalePlan_throws() {
+        AllocationPlan plan = allocationService.previewAllocation(AllocationMode.GREEDY);
+        Student student3 = studentService.addStudent("Student Three", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+        allocationService.assignStudentToProject(project.getId(), student3.getId());
+
+        assertThrows(AllocationService.AllocationStateException.class, () ->
+                allocationService.commitPlan(plan.id())
+        );
+    }
+
+    @Test
+    void commitPlan_unknownPlan_throws() {
+        assertThrows(AllocationService.AllocationNotFoundException.class, () ->
+                allocationService.commitPlan(UUID.randomUUID())
+        );
+    }
+
     @Test
     void findProjectOwnerId_success() {
         Optional<Long> ownerId = allocationService.findProjectOwnerId(project.getId());
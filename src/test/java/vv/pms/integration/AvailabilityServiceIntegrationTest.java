@@ -6,7 +6,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import vv.pms.availability.Availability;
+import vv.pms.availability.AvailabilityGrid;
 import vv.pms.availability.AvailabilityService;
+import vv.pms.availability.SchedulingCalendar;
 import vv.pms.professor.Professor;
 import vv.pms.professor.ProfessorService;
 import vv.pms.project.Program;
@@ -28,6 +30,9 @@ class AvailabilityServiceIntegrationTest {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private SchedulingCalendar calendar;
+
     private Professor professor;
     private Student student;
 
@@ -47,13 +52,13 @@ class AvailabilityServiceIntegrationTest {
         assertEquals("PROFESSOR", availability.getUserType());
         
         // Default availability should be all false
-        Boolean[][] timeslots = availability.getTimeslots();
+        Boolean[][] timeslots = availability.getTimeslots().toMatrix();
         assertNotNull(timeslots);
-        assertEquals(5, timeslots.length); // 5 days
-        assertEquals(32, timeslots[0].length); // 32 time slots (15 min intervals, 8am-4pm)
+        assertEquals(calendar.days(), timeslots.length);
+        assertEquals(calendar.bins(), timeslots[0].length);
         
-        for (int day = 0; day < 5; day++) {
-            for (int slot = 0; slot < 32; slot++) {
+        for (int day = 0; day < calendar.days(); day++) {
+            for (int slot = 0; slot < calendar.bins(); slot++) {
                 assertFalse(timeslots[day][slot]);
             }
         }
@@ -90,14 +95,14 @@ class AvailabilityServiceIntegrationTest {
             }
         }
         
-        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", newTimeslots);
+        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", AvailabilityGrid.of(newTimeslots));
         
         Availability updated = availabilityService.getAvailability(professor.getId(), "PROFESSOR");
         
-        assertTrue(updated.getTimeslots()[0][0]); // Monday morning
-        assertTrue(updated.getTimeslots()[2][0]); // Wednesday morning
-        assertFalse(updated.getTimeslots()[1][0]); // Tuesday morning
-        assertFalse(updated.getTimeslots()[0][20]); // Monday afternoon
+        assertTrue(updated.getTimeslots().isFree(0, 0)); // Monday morning
+        assertTrue(updated.getTimeslots().isFree(2, 0)); // Wednesday morning
+        assertFalse(updated.getTimeslots().isFree(1, 0)); // Tuesday morning
+        assertFalse(updated.getTimeslots().isFree(0, 20)); // Monday afternoon
     }
 
     @Test
@@ -109,13 +114,13 @@ class AvailabilityServiceIntegrationTest {
             }
         }
         
-        availabilityService.updateAvailability(student.getId(), "STUDENT", fullDay);
+        availabilityService.updateAvailability(student.getId(), "STUDENT", AvailabilityGrid.of(fullDay));
         
         Availability updated = availabilityService.getAvailability(student.getId(), "STUDENT");
         
         for (int day = 0; day < 5; day++) {
             for (int slot = 0; slot < 32; slot++) {
-                assertTrue(updated.getTimeslots()[day][slot]);
+                assertTrue(updated.getTimeslots().isFree(day, slot));
             }
         }
     }
@@ -129,7 +134,7 @@ class AvailabilityServiceIntegrationTest {
                 allTrue[day][slot] = true;
             }
         }
-        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", allTrue);
+        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", AvailabilityGrid.of(allTrue));
         
         // Then set Friday to unavailable
         Boolean[][] fridayOff = new Boolean[5][32];
@@ -138,12 +143,12 @@ class AvailabilityServiceIntegrationTest {
                 fridayOff[day][slot] = day != 4; // Friday is day 4
             }
         }
-        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", fridayOff);
+        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", AvailabilityGrid.of(fridayOff));
         
         Availability updated = availabilityService.getAvailability(professor.getId(), "PROFESSOR");
         
-        assertTrue(updated.getTimeslots()[0][0]); // Monday available
-        assertFalse(updated.getTimeslots()[4][0]); // Friday unavailable
+        assertTrue(updated.getTimeslots().isFree(0, 0)); // Monday available
+        assertFalse(updated.getTimeslots().isFree(4, 0)); // Friday unavailable
     }
 
     @Test
@@ -171,7 +176,7 @@ class AvailabilityServiceIntegrationTest {
             }
         }
         
-        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", newTimeslots);
+        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", AvailabilityGrid.of(newTimeslots));
         
         Availability updated = availabilityService.getAvailability(professor.getId(), "PROFESSOR");
         assertEquals(initialId, updated.getId());
@@ -181,11 +186,34 @@ class AvailabilityServiceIntegrationTest {
     void getAvailability_matrixDimensions() {
         Availability availability = availabilityService.getAvailability(student.getId(), "STUDENT");
         
-        Boolean[][] timeslots = availability.getTimeslots();
-        assertEquals(5, timeslots.length); // Mon-Fri
+        Boolean[][] timeslots = availability.getTimeslots().toMatrix();
+        assertEquals(calendar.days(), timeslots.length);
         
-        for (int day = 0; day < 5; day++) {
-            assertEquals(32, timeslots[day].length); // 32 slots (8am-4pm at 15 min intervals)
+        for (int day = 0; day < calendar.days(); day++) {
+            assertEquals(calendar.bins(), timeslots[day].length);
         }
     }
+
+    @Test
+    void findGrids_servesRepeatsFromCacheUntilUpdated() {
+        // A student, not the professor: ids are per table, so the professor may share the student's id
+        Student withoutGrid = studentService.addStudent("No Grid Student", "AVAIL002", "nogrid.student@university.edu", Program.SOFTWARE_ENGINEERING);
+        availabilityService.updateAvailability(student.getId(), "STUDENT", AvailabilityGrid.full(calendar.days(), calendar.bins()));
+        availabilityService.findGrids(java.util.List.of(student.getId(), withoutGrid.getId()), "STUDENT");
+        long hits = availabilityService.cacheStats().hits();
+        long misses = availabilityService.cacheStats().misses();
+
+        java.util.Map<Long, AvailabilityGrid> grids =
+                availabilityService.findGrids(java.util.List.of(student.getId(), withoutGrid.getId()), "STUDENT");
+
+        assertEquals(hits + 2, availabilityService.cacheStats().hits());
+        assertEquals(misses, availabilityService.cacheStats().misses());
+        assertEquals(calendar.days() * calendar.bins(), grids.get(student.getId()).popcount());
+        assertFalse(grids.containsKey(withoutGrid.getId()));
+
+        availabilityService.updateAvailability(student.getId(), "STUDENT", AvailabilityGrid.empty(calendar.days(), calendar.bins()));
+
+        assertEquals(0, availabilityService.getGrid(student.getId(), "STUDENT").popcount());
+        assertEquals(misses + 1, availabilityService.cacheStats().misses());
+    }
 }
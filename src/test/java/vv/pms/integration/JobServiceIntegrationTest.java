@@ -0,0 +1,104 @@
+package vv.pms.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import vv.pms.job.Job;
+import vv.pms.job.JobService;
+import vv.pms.job.JobStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class JobServiceIntegrationTest {
+
+    @Autowired
+    private JobService jobService;
+
+    @Test
+    void submit_runsInBackgroundAndReportsProgress() throws Exception {
+        Job job = jobService.submit("test-progress", progress -> {
+            progress.phase("Counting", 3);
+            progress.advance(3);
+        });
+
+        awaitFinished(job);
+
+        assertEquals(JobStatus.SUCCEEDED, job.getStatus());
+        assertEquals("Done", job.getPhase());
+        assertEquals(3, job.getItemsProcessed());
+        assertEquals(job, jobService.findJob(job.getId()).orElseThrow());
+    }
+
+    @Test
+    void submit_failingWork_marksJobFailed() throws Exception {
+        Job job = jobService.submit("test-failure", progress -> {
+            throw new IllegalStateException("boom");
+        });
+
+        awaitFinished(job);
+
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals("boom", job.getError());
+    }
+
+    @Test
+    void submit_sameKeyWhileActive_returnsExistingJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Job first = jobService.submit("test-merge", progress -> await(release));
+
+        Job second = jobService.submit("test-merge", progress -> {});
+        release.countDown();
+        awaitFinished(first);
+        Job third = jobService.submit("test-merge", progress -> {});
+
+        assertSame(first, second);
+        assertNotEquals(first.getId(), third.getId());
+    }
+
+    @Test
+    void submit_sameKeyOtherVariantWhileActive_conflicts() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Job greedy = jobService.submit("test-variant", "GREEDY", progress -> await(release));
+
+        assertSame(greedy, jobService.submit("test-variant", "GREEDY", progress -> {}));
+        JobService.JobConflictException conflict = assertThrows(JobService.JobConflictException.class,
+                () -> jobService.submit("test-variant", "OPTIMAL", progress -> {}));
+        assertSame(greedy, conflict.getActive());
+
+        release.countDown();
+        awaitFinished(greedy);
+        Job optimal = jobService.submit("test-variant", "OPTIMAL", progress -> {});
+        assertEquals("OPTIMAL", optimal.getVariant());
+        awaitFinished(optimal);
+    }
+
+    @Test
+    void submit_queueFull_rejects() {
+        JobService small = new JobService(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        small.submit("a", progress -> await(release));
+        small.submit("b", progress -> await(release));
+
+        assertThrows(JobService.JobRejectedException.class, () -> small.submit("c", progress -> {}));
+        release.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitFinished(Job job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (job.getStatus().isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package vv.pms.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import vv.pms.availability.AvailabilityService;
+import vv.pms.common.BatchMigration;
+import vv.pms.presentation.Room;
+import vv.pms.presentation.RoomService;
+import vv.pms.project.Program;
+import vv.pms.student.Student;
+import vv.pms.student.StudentService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migration of JSON availability into the bit-packed columns. Not @Transactional: every batch
+ * commits in its own transaction, which would not see rows a test transaction had not committed;
+ * the context is thrown away afterwards so the committed rows do not leak into other tests.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class LegacyMigrationIntegrationTest {
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private BatchMigration batchMigration;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void migrateLegacyAvailability_movesJsonRowsToBits() {
+        // One more than a batch, so the migration has to pick up where the first batch stopped
+        insertLegacyRooms("Legacy Room ", 201);
+
+        roomService.migrateLegacyAvailability();
+
+        assertEquals(0, legacyRooms());
+        Room migrated = roomService.getAllRooms().stream()
+                .filter(r -> r.getName().equals("Legacy Room 0"))
+                .findFirst().orElseThrow();
+        Boolean[][] availability = migrated.getAvailability().toMatrix();
+        assertArrayEquals(new Boolean[] { true, false, true }, availability[0]);
+        assertArrayEquals(new Boolean[] { false, false, true }, availability[1]);
+    }
+
+    @Test
+    void migrateLegacyTimeslots_movesJsonRowsToBits() {
+        Student student = studentService.addStudent("Legacy Student", "LEGACY001", "legacy.student@university.edu", Program.SOFTWARE_ENGINEERING);
+        jdbc.update("INSERT INTO availability (user_id, user_type, timeslots) VALUES (?, 'STUDENT', ?)",
+                student.getId(), "[[true,false,true],[false,false,true]]");
+
+        availabilityService.migrateLegacyTimeslots();
+
+        assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM availability WHERE timeslots IS NOT NULL OR timeslot_bits IS NULL", Integer.class));
+        Boolean[][] timeslots = availabilityService.getAvailability(student.getId(), "STUDENT").getTimeslots().toMatrix();
+        assertArrayEquals(new Boolean[] { true, false, true }, timeslots[0]);
+        assertArrayEquals(new Boolean[] { false, false, true }, timeslots[1]);
+    }
+
+    @Test
+    void batchMigration_keepsTheBatchesCommittedBeforeAFailure() {
+        insertLegacyRooms("Interrupted Room ", 3);
+        String pending = "SELECT COUNT(*) FROM rooms WHERE name LIKE 'Interrupted Room %' AND availability IS NOT NULL";
+        AtomicInteger batches = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> batchMigration.run(
+                () -> jdbc.queryForList("SELECT id FROM rooms WHERE name LIKE 'Interrupted Room %' AND availability IS NOT NULL"
+                        + " FETCH FIRST 2 ROWS ONLY", Long.class),
+                ids -> {
+                    ids.forEach(id -> jdbc.update("UPDATE rooms SET availability = NULL WHERE id = ?", id));
+                    if (batches.incrementAndGet() == 2) throw new IllegalStateException("second batch fails");
+                }));
+
+        // The first batch stays committed, the failed one is rolled back
+        assertEquals(1, jdbc.queryForObject(pending, Integer.class));
+        jdbc.update("DELETE FROM rooms WHERE name LIKE 'Interrupted Room %'");
+    }
+
+    private void insertLegacyRooms(String prefix, int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { prefix + i, "[[true,false,true],[false,false,true]]" });
+        }
+        jdbc.batchUpdate("INSERT INTO rooms (name, availability) VALUES (?, ?)", rows);
+    }
+
+    private int legacyRooms() {
+        return jdbc.queryForObject(
+                "SELECT COUNT(*) FROM rooms WHERE availability IS NOT NULL OR availability_bits IS NULL", Integer.class);
+    }
+}
@@ -0,0 +1,131 @@
+package vv.pms.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import vv.pms.allocation.AllocationService;
+import vv.pms.availability.AvailabilityGrid;
+import vv.pms.availability.AvailabilityService;
+import vv.pms.presentation.PresentationCalendarService;
+import vv.pms.presentation.PresentationCalendarService.Feed;
+import vv.pms.presentation.PresentationService;
+import vv.pms.presentation.Room;
+import vv.pms.presentation.RoomService;
+import vv.pms.professor.Professor;
+import vv.pms.professor.ProfessorService;
+import vv.pms.project.Program;
+import vv.pms.project.Project;
+import vv.pms.project.ProjectService;
+import vv.pms.student.Student;
+import vv.pms.student.StudentService;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Revalidation of the .ics feeds over HTTP. Not @Transactional: the ETag only moves once a
+ * write commits, so every step here has to commit; the context is thrown away afterwards so the
+ * committed rows do not leak into other tests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class PresentationCalendarFeedIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PresentationService presentationService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private AllocationService allocationService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private PresentationCalendarService calendarService;
+
+    @Test
+    void professorFeed_isRevalidatedUntilTheTeamChanges() throws Exception {
+        Professor professor = professorService.addProfessor("Prof. Feed", "prof.feed@university.edu");
+        Project project = projectService.addProject("Feed Project", "Project for feed testing",
+                Set.of(Program.SOFTWARE_ENGINEERING), 2, professor.getId());
+        Student first = studentService.addStudent("Feed Student", "FEED001", "feed.student@university.edu", Program.SOFTWARE_ENGINEERING);
+        Student second = studentService.addStudent("Late Student", "FEED002", "late.student@university.edu", Program.SOFTWARE_ENGINEERING);
+        Room room = roomService.createRoom("Feed Room");
+        AvailabilityGrid everything = AvailabilityGrid.full(5, 32);
+        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", everything);
+        availabilityService.updateAvailability(first.getId(), "STUDENT", everything);
+        availabilityService.updateAvailability(second.getId(), "STUDENT", everything);
+        allocationService.assignStudentToProject(project.getId(), first.getId());
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 0);
+        String url = "/presentations/calendar/professors/" + professor.getId() + ".ics?token="
+                + calendarService.feedToken(Feed.PROFESSOR, professor.getId());
+
+        MvcResult fresh = fetch(url, null);
+        assertEquals(200, fresh.getResponse().getStatus());
+        String etag = fresh.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertFalse(fresh.getResponse().getContentAsString().contains("Late Student"));
+
+        MvcResult unchanged = fetch(url, etag);
+        assertEquals(304, unchanged.getResponse().getStatus());
+        assertEquals(etag, unchanged.getResponse().getHeader(HttpHeaders.ETAG));
+
+        // Only the team changes; no booking or room is touched
+        allocationService.assignStudentToProject(project.getId(), second.getId());
+
+        MvcResult changed = fetch(url, etag);
+        assertEquals(200, changed.getResponse().getStatus());
+        assertNotEquals(etag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(changed.getResponse().getContentAsString().contains("Late Student"));
+    }
+
+    @Test
+    void personalFeeds_needTheirOwnToken() throws Exception {
+        Professor professor = professorService.addProfessor("Prof. Private", "prof.private@university.edu");
+        Student student = studentService.addStudent("Private Student", "FEED003", "private.student@university.edu", Program.SOFTWARE_ENGINEERING);
+        String professorToken = calendarService.feedToken(Feed.PROFESSOR, professor.getId());
+        String studentUrl = "/presentations/calendar/students/" + student.getId() + ".ics";
+
+        assertEquals(404, fetch(studentUrl, null).getResponse().getStatus());
+        assertEquals(404, fetch(studentUrl + "?token=" + professorToken, null).getResponse().getStatus());
+        // Not even a revalidation answers without the token
+        assertEquals(404, fetch(studentUrl, "*").getResponse().getStatus());
+
+        String studentToken = calendarService.feedToken(Feed.STUDENT, student.getId());
+        assertEquals(200, fetch(studentUrl + "?token=" + studentToken, null).getResponse().getStatus());
+    }
+
+    // Full feeds are streamed, so their body only arrives after the async dispatch
+    private MvcResult fetch(String url, String ifNoneMatch) throws Exception {
+        var request = get(url);
+        if (ifNoneMatch != null) request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (!result.getRequest().isAsyncStarted()) return result;
+        return mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn();
+    }
+}
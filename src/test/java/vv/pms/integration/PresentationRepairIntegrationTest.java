@@ -0,0 +1,98 @@
+package vv.pms.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import vv.pms.allocation.AllocationService;
+import vv.pms.availability.AvailabilityGrid;
+import vv.pms.availability.AvailabilityService;
+import vv.pms.job.Job;
+import vv.pms.job.JobService;
+import vv.pms.job.JobStatus;
+import vv.pms.presentation.PresentationService;
+import vv.pms.presentation.PresentationSlot;
+import vv.pms.presentation.Room;
+import vv.pms.presentation.RoomService;
+import vv.pms.professor.Professor;
+import vv.pms.professor.ProfessorService;
+import vv.pms.project.Program;
+import vv.pms.project.Project;
+import vv.pms.project.ProjectService;
+import vv.pms.student.Student;
+import vv.pms.student.StudentService;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The schedule repair that follows an availability change. Not @Transactional: the repair is
+ * queued as a background job once the change commits, so the change has to really commit; the
+ * context is thrown away afterwards so the committed rows do not leak into other tests.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class PresentationRepairIntegrationTest {
+
+    @Autowired
+    private PresentationService presentationService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private AllocationService allocationService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Test
+    void committedAvailabilityChange_movesTheBrokenPresentation() throws InterruptedException {
+        Professor professor = professorService.addProfessor("Prof. Repair", "prof.repair@university.edu");
+        Project project = projectService.addProject("Repair Project", "Project for repair testing",
+                Set.of(Program.SOFTWARE_ENGINEERING), 1, professor.getId());
+        Student student = studentService.addStudent("Repair Student", "REP001", "repair.student@university.edu", Program.SOFTWARE_ENGINEERING);
+        Room room = roomService.createRoom("Repair Room");
+        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", AvailabilityGrid.full(5, 32));
+        availabilityService.updateAvailability(student.getId(), "STUDENT", AvailabilityGrid.full(5, 32));
+        allocationService.assignStudentToProject(project.getId(), student.getId());
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 4);
+
+        availabilityService.updateAvailability(student.getId(), "STUDENT",
+                AvailabilityGrid.full(5, 32).with(0, 4, false));
+        Job repair = awaitRepairOf(student.getId());
+
+        assertEquals(JobStatus.SUCCEEDED, repair.getStatus());
+        assertFalse(availabilityService.getGrid(student.getId(), "STUDENT").isFree(0, 4));
+        PresentationSlot moved = presentationService.findByProjectId(project.getId()).orElseThrow();
+        assertEquals(0, moved.getDayIndex());
+        assertEquals(1, Math.abs(moved.getStartBinIndex() - 4));
+    }
+
+    // The newest repair job queued for the student, once it has finished
+    private Job awaitRepairOf(Long studentId) throws InterruptedException {
+        String prefix = "presentation-repair:STUDENT:" + studentId + ":";
+        Job repair = jobService.findJobs().stream()
+                .filter(job -> job.getKey().startsWith(prefix))
+                .findFirst()
+                .orElseThrow();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (repair.getStatus().isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return repair;
+    }
+}
@@ -1,12 +1,18 @@
 package vv.pms.integration;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import vv.pms.allocation.AllocationService;
+import vv.pms.availability.AvailabilityGrid;
 import vv.pms.availability.AvailabilityService;
+import vv.pms.availability.internal.AvailabilityGridCache;
+import vv.pms.presentation.PresentationCalendarService;
 import vv.pms.presentation.PresentationService;
 import vv.pms.presentation.PresentationSlot;
 import vv.pms.presentation.Room;
@@ -50,6 +56,15 @@ class PresentationServiceIntegrationTest {
     @Autowired
     private AvailabilityService availabilityService;
 
+    @Autowired
+    private PresentationCalendarService calendarService;
+
+    @Autowired
+    private AvailabilityGridCache gridCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private Professor professor;
     private Project project;
     private Student student;
@@ -72,14 +87,8 @@ class PresentationServiceIntegrationTest {
         allocationService.assignStudentToProject(project.getId(), student.getId());
         
         // Set up availability for professor and student (all available)
-        Boolean[][] fullAvailability = new Boolean[5][32];
-        for (int d = 0; d < 5; d++) {
-            for (int t = 0; t < 32; t++) {
-                fullAvailability[d][t] = true;
-            }
-        }
-        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", fullAvailability);
-        availabilityService.updateAvailability(student.getId(), "STUDENT", fullAvailability);
+        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", AvailabilityGrid.of(fullAvailability()));
+        availabilityService.updateAvailability(student.getId(), "STUDENT", AvailabilityGrid.of(fullAvailability()));
     }
 
     @Test
@@ -146,15 +155,7 @@ class PresentationServiceIntegrationTest {
     @Test
     void assignPresentation_roomConflict_throws() {
         // Create another project with student
-        Student student2 = studentService.addStudent("Student 2", "S002", "s2@test.com", Program.SOFTWARE_ENGINEERING);
-        Project project2 = projectService.addProject(
-                "Project 2",
-                "Description 2",
-                Set.of(Program.SOFTWARE_ENGINEERING),
-                1,
-                professor.getId()
-        );
-        allocationService.assignStudentToProject(project2.getId(), student2.getId());
+        Project project2 = secondProjectForSameProfessor(fullAvailability());
         
         // Schedule first presentation
         presentationService.assignPresentation(project.getId(), room.getId(), 0, 0);
@@ -281,6 +282,160 @@ class PresentationServiceIntegrationTest {
         assertNull(ourRow.get().slotLabel());
     }
 
+    @Test
+    void buildPresentationBoard_matchesPerProjectQueries() {
+        Project project2 = secondProjectForSameProfessor(freeOn(1, 0, 32));
+        presentationService.assignPresentation(project.getId(), room.getId(), 1, 3);
+
+        PresentationService.PresentationBoard board = presentationService.buildPresentationBoard();
+
+        assertEquals(presentationService.getAllRooms().size(), board.rooms().size());
+        assertEquals(presentationService.buildPresentationRows(), board.rows());
+        for (PresentationService.PresentationRow row : board.rows()) {
+            Long roomId = row.roomId() != null ? row.roomId() : board.rooms().get(0).getId();
+            assertEquals(presentationService.getAvailableSlots(row.projectId(), roomId),
+                    board.slotOptionsByProject().get(row.projectId()));
+        }
+        PresentationService.PresentationRow second = board.rows().stream()
+                .filter(r -> r.projectId().equals(project2.getId()))
+                .findFirst().orElseThrow();
+        assertEquals("Student 2", second.studentNames());
+    }
+
+    @Test
+    void buildPresentationBoard_runsTheSameQueriesForAnyNumberOfProjects() {
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 0);
+        addProjects(1);
+        long forTwo = statementsToBuildBoard();
+
+        addProjects(18);
+        long forTwenty = statementsToBuildBoard();
+
+        assertEquals(20, presentationService.buildPresentationBoard().rows().size());
+        assertEquals(forTwo, forTwenty);
+    }
+
+    @Test
+    void deleteRoom_releasesItsPresentations() {
+        presentationService.assignPresentation(project.getId(), room.getId(), 2, 4);
+
+        roomService.deleteRoom(room.getId());
+
+        assertTrue(presentationService.findByProjectId(project.getId()).isEmpty());
+        PresentationService.PresentationRow row = presentationService.buildPresentationRows().stream()
+                .filter(r -> r.projectId().equals(project.getId()))
+                .findFirst().orElseThrow();
+        assertNull(row.roomId());
+        assertNull(row.slotLabel());
+    }
+
+    @Test
+    void unassignPresentation_freesTheRoomForOthers() {
+        Project project2 = secondProjectForSameProfessor(fullAvailability());
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 0);
+        assertThrows(IllegalStateException.class, () ->
+                presentationService.assignPresentation(project2.getId(), room.getId(), 0, 0));
+
+        presentationService.unassignPresentation(project.getId());
+
+        assertNotNull(presentationService.assignPresentation(project2.getId(), room.getId(), 0, 0));
+    }
+
+    @Test
+    void professorCannotPresentInTwoRoomsAtOnce() {
+        Project project2 = secondProjectForSameProfessor(fullAvailability());
+        Room otherRoom = roomService.createRoom("Presentation Room 102");
+
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 0);
+
+        assertThrows(IllegalStateException.class, () ->
+                presentationService.assignPresentation(project2.getId(), otherRoom.getId(), 0, 0));
+        List<PresentationService.SlotOption> options = presentationService.getAvailableSlots(project2.getId(), otherRoom.getId());
+        assertTrue(options.stream().noneMatch(o -> o.dayIndex() == 0 && o.startBinIndex() == 0));
+        assertTrue(options.stream().anyMatch(o -> o.dayIndex() == 0 && o.startBinIndex() == 1));
+        List<PresentationService.SlotOption> boardOptions = presentationService.buildPresentationBoard()
+                .slotOptionsByProject().get(project2.getId());
+        Long firstRoom = presentationService.getAllRooms().get(0).getId();
+        assertEquals(presentationService.getAvailableSlots(project2.getId(), firstRoom), boardOptions);
+
+        presentationService.runBestEffortAllocation();
+
+        PresentationSlot second = presentationService.findByProjectId(project2.getId()).orElseThrow();
+        assertFalse(second.getDayIndex() == 0 && second.getStartBinIndex() == 0);
+    }
+
+    @Test
+    void largerTeamsGetLongerPresentations() {
+        Student student2 = secondStudent(freeOn(0, 0, 3));
+        allocationService.assignStudentToProject(project.getId(), student2.getId());
+
+        assertEquals(2, presentationService.durationBinsFor(project.getId()));
+        List<PresentationService.SlotOption> options = presentationService.getAvailableSlots(project.getId(), room.getId());
+        assertEquals(List.of(0, 1), options.stream().map(PresentationService.SlotOption::startBinIndex).toList());
+        assertEquals("Monday 08:00-09:00", options.get(0).label());
+
+        PresentationSlot slot = presentationService.assignPresentation(project.getId(), room.getId(), 0, 1);
+        assertEquals(2, slot.getDurationBins());
+        assertThrows(IllegalArgumentException.class, () ->
+                presentationService.assignPresentation(project.getId(), room.getId(), 0, 15));
+    }
+
+    @Test
+    void availabilityChange_movesOnlyTheBrokenPresentationToTheNearestSlot() {
+        Project project2 = secondProjectForSameProfessor(fullAvailability());
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 4);
+        presentationService.assignPresentation(project2.getId(), room.getId(), 2, 0);
+
+        // The student can no longer make Monday 10:00; 10:30 is still free for everyone
+        Boolean[][] changed = fullAvailability();
+        changed[0][4] = false;
+        availabilityService.updateAvailability(student.getId(), "STUDENT", AvailabilityGrid.of(changed));
+        // The automatic repair runs after commit, which this test transaction never reaches
+        presentationService.repairSchedule(student.getId(), "STUDENT");
+
+        PresentationSlot moved = presentationService.findByProjectId(project.getId()).orElseThrow();
+        assertEquals(room.getId(), moved.getRoomId());
+        assertEquals(0, moved.getDayIndex());
+        assertEquals(3, moved.getStartBinIndex());
+        PresentationSlot untouched = presentationService.findByProjectId(project2.getId()).orElseThrow();
+        assertEquals(2, untouched.getDayIndex());
+        assertEquals(0, untouched.getStartBinIndex());
+    }
+
+    @Test
+    void repairSchedule_shiftsANeighbourRatherThanDroppingThePresentation() {
+        Project project2 = secondProjectForSameProfessor(fullAvailability());
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 4);
+        presentationService.assignPresentation(project2.getId(), room.getId(), 0, 5);
+
+        // The student can now only make Monday 10:30, which project 2 holds
+        availabilityService.updateAvailability(student.getId(), "STUDENT", AvailabilityGrid.of(freeOn(0, 5, 6)));
+        PresentationService.RepairResult repair = presentationService.repairSchedule(student.getId(), "STUDENT");
+
+        assertTrue(repair.unscheduledProjectIds().isEmpty());
+        PresentationSlot moved = presentationService.findByProjectId(project.getId()).orElseThrow();
+        assertEquals(0, moved.getDayIndex());
+        assertEquals(5, moved.getStartBinIndex());
+        PresentationSlot shifted = presentationService.findByProjectId(project2.getId()).orElseThrow();
+        assertEquals(room.getId(), shifted.getRoomId());
+        assertEquals(0, shifted.getDayIndex());
+        assertEquals(1, Math.abs(shifted.getStartBinIndex() - 5));
+    }
+
+    @Test
+    void repairSchedule_unassignsWhenNoSlotIsLeft() {
+        presentationService.assignPresentation(project.getId(), room.getId(), 1, 1);
+
+        availabilityService.updateAvailability(professor.getId(), "PROFESSOR", AvailabilityGrid.of(new Boolean[5][32]));
+        PresentationService.RepairResult repair = presentationService.repairSchedule(professor.getId(), "PROFESSOR");
+
+        assertEquals(List.of(project.getId()), repair.unscheduledProjectIds());
+        assertTrue(presentationService.findByProjectId(project.getId()).isEmpty());
+        PresentationService.RepairResult again = presentationService.repairSchedule(professor.getId(), "PROFESSOR");
+        assertTrue(again.movedProjectIds().isEmpty());
+        assertTrue(again.unscheduledProjectIds().isEmpty());
+    }
+
     @Test
     void runBestEffortAllocation_createsSlots() {
         // Create a room and ensure it has availability
@@ -294,6 +449,29 @@ class PresentationServiceIntegrationTest {
         assertNotNull(slot);
     }
 
+    @Test
+    void runBestEffortAllocation_keepsExistingSlotsAndAvoidsThem() {
+        // A second team with its own professor, so only the room stands in the way
+        Professor professor2 = professorService.addProfessor("Prof. Other", "prof.other@university.edu");
+        availabilityService.updateAvailability(professor2.getId(), "PROFESSOR", AvailabilityGrid.full(5, 32));
+        // Student 2 can only make Monday 08:00, which project 1 already holds in this room
+        Project project2 = secondProject(professor2, freeOn(0, 0, 1));
+        Room room2 = roomService.createRoom("Presentation Room 102");
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 0);
+
+        presentationService.runBestEffortAllocation();
+
+        PresentationSlot kept = presentationService.findByProjectId(project.getId()).orElseThrow();
+        assertEquals(room.getId(), kept.getRoomId());
+        assertEquals(0, kept.getDayIndex());
+        assertEquals(0, kept.getStartBinIndex());
+        PresentationSlot placed = presentationService.findByProjectId(project2.getId())
+                .orElseThrow(() -> new AssertionError("project 2 fits in another room and must be scheduled"));
+        assertEquals(room2.getId(), placed.getRoomId());
+        assertEquals(0, placed.getDayIndex());
+        assertEquals(0, placed.getStartBinIndex());
+    }
+
     @Test
     void reassignPresentation_updatesExistingSlot() {
         // Assign initial presentation
@@ -311,25 +489,8 @@ class PresentationServiceIntegrationTest {
 
     @Test
     void multipleProjectsDifferentSlots_success() {
-        // Create second project
-        Student student2 = studentService.addStudent("Student 2", "S002", "s2@test.com", Program.SOFTWARE_ENGINEERING);
-        Project project2 = projectService.addProject(
-                "Project 2",
-                "Description 2",
-                Set.of(Program.SOFTWARE_ENGINEERING),
-                1,
-                professor.getId()
-        );
-        allocationService.assignStudentToProject(project2.getId(), student2.getId());
-        
-        // Set availability for student2
-        Boolean[][] fullAvailability = new Boolean[5][32];
-        for (int d = 0; d < 5; d++) {
-            for (int t = 0; t < 32; t++) {
-                fullAvailability[d][t] = true;
-            }
-        }
-        availabilityService.updateAvailability(student2.getId(), "STUDENT", fullAvailability);
+        // Create second project, its student available all week
+        Project project2 = secondProjectForSameProfessor(fullAvailability());
         
         // Assign presentations to different slots
         presentationService.assignPresentation(project.getId(), room.getId(), 0, 0);
@@ -342,4 +503,122 @@ class PresentationServiceIntegrationTest {
         assertTrue(slot2.isPresent());
         assertNotEquals(slot1.get().getStartBinIndex(), slot2.get().getStartBinIndex());
     }
+
+    @Test
+    void writeCalendar_listsPresentationsPerFeed() {
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 2);
+
+        String all = calendar(PresentationCalendarService.Feed.ALL, null);
+        assertTrue(all.contains("UID:presentation-" + project.getId() + "@pms"));
+        assertTrue(all.contains("SUMMARY:Presentation: Presentation Project"));
+        assertTrue(all.contains("LOCATION:Presentation Room 101"));
+        assertTrue(all.contains("Present Student"));
+        // No dates configured: the generic week is anchored on the configured Monday, not on today
+        assertTrue(all.contains("DTSTART:20240101T090000"));
+
+        assertTrue(calendar(PresentationCalendarService.Feed.ROOM, room.getId()).contains("BEGIN:VEVENT"));
+        assertTrue(calendar(PresentationCalendarService.Feed.PROFESSOR, professor.getId()).contains("BEGIN:VEVENT"));
+        assertTrue(calendar(PresentationCalendarService.Feed.STUDENT, student.getId()).contains("BEGIN:VEVENT"));
+
+        Student other = studentService.addStudent("Other Student", "S003", "s3@test.com", Program.SOFTWARE_ENGINEERING);
+        String empty = calendar(PresentationCalendarService.Feed.STUDENT, other.getId());
+        assertTrue(empty.contains("BEGIN:VCALENDAR"));
+        assertFalse(empty.contains("BEGIN:VEVENT"));
+    }
+
+    @Test
+    void feedToken_isIssuedOnceAndOnlyUnlocksItsOwnFeed() {
+        String token = calendarService.feedToken(PresentationCalendarService.Feed.STUDENT, student.getId());
+
+        assertEquals(token, calendarService.feedToken(PresentationCalendarService.Feed.STUDENT, student.getId()));
+        assertTrue(token.length() >= 40);
+        assertTrue(calendarService.isFeedToken(PresentationCalendarService.Feed.STUDENT, student.getId(), token));
+        assertFalse(calendarService.isFeedToken(PresentationCalendarService.Feed.STUDENT, student.getId(), token + "x"));
+        assertFalse(calendarService.isFeedToken(PresentationCalendarService.Feed.STUDENT, student.getId(), null));
+        assertFalse(calendarService.isFeedToken(PresentationCalendarService.Feed.PROFESSOR, student.getId(), token));
+        assertNotEquals(token, calendarService.feedToken(PresentationCalendarService.Feed.PROFESSOR, professor.getId()));
+    }
+
+    @Test
+    void scheduleETag_isStableWithinAnUncommittedWrite() {
+        String before = calendarService.scheduleETag();
+
+        presentationService.assignPresentation(project.getId(), room.getId(), 0, 2);
+
+        // The version moves once the surrounding transaction completes, not while it is open
+        assertEquals(before, calendarService.scheduleETag());
+    }
+
+    // "Project 2" owned by the setUp professor, with "Student 2" on its team
+    private Project secondProjectForSameProfessor(Boolean[][] studentAvailability) {
+        return secondProject(professor, studentAvailability);
+    }
+
+    private Project secondProject(Professor owner, Boolean[][] studentAvailability) {
+        Student student2 = secondStudent(studentAvailability);
+        Project project2 = projectService.addProject(
+                "Project 2",
+                "Description 2",
+                Set.of(Program.SOFTWARE_ENGINEERING),
+                1,
+                owner.getId()
+        );
+        allocationService.assignStudentToProject(project2.getId(), student2.getId());
+        return project2;
+    }
+
+    private Student secondStudent(Boolean[][] availability) {
+        Student student2 = studentService.addStudent("Student 2", "S002", "s2@test.com", Program.SOFTWARE_ENGINEERING);
+        availabilityService.updateAvailability(student2.getId(), "STUDENT", AvailabilityGrid.of(availability));
+        return student2;
+    }
+
+    // Projects with a one-student team each, owned by the fixture professor
+    private void addProjects(int count) {
+        for (int i = 0; i < count; i++) {
+            String tag = "BOARD" + projectService.findAllProjects().size();
+            Student member = studentService.addStudent("Student " + tag, tag, tag.toLowerCase() + "@test.com",
+                    Program.SOFTWARE_ENGINEERING);
+            availabilityService.updateAvailability(member.getId(), "STUDENT", AvailabilityGrid.of(fullAvailability()));
+            Project extra = projectService.addProject("Project " + tag, "Board project",
+                    Set.of(Program.SOFTWARE_ENGINEERING), 1, professor.getId());
+            allocationService.assignStudentToProject(extra.getId(), member.getId());
+        }
+    }
+
+    // Statements prepared while building the board from a fresh persistence context and grid cache
+    private long statementsToBuildBoard() {
+        entityManager.flush();
+        entityManager.clear();
+        gridCache.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            presentationService.buildPresentationBoard();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private static Boolean[][] fullAvailability() {
+        Boolean[][] matrix = new Boolean[5][32];
+        for (Boolean[] row : matrix) java.util.Arrays.fill(row, true);
+        return matrix;
+    }
+
+    // Free only on the given day, from fromBin up to but not including toBin
+    private static Boolean[][] freeOn(int day, int fromBin, int toBin) {
+        Boolean[][] matrix = new Boolean[5][32];
+        for (Boolean[] row : matrix) java.util.Arrays.fill(row, false);
+        java.util.Arrays.fill(matrix[day], fromBin, toBin, true);
+        return matrix;
+    }
+
+    private String calendar(PresentationCalendarService.Feed feed, Long id) {
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        calendarService.writeCalendar(feed, id, out);
+        return out.toString(java.nio.charset.StandardCharsets.UTF_8);
+    }
 }
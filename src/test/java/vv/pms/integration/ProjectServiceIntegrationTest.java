@@ -1,5 +1,7 @@
 package vv.pms.integration;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +38,9 @@ class ProjectServiceIntegrationTest {
     @Autowired
     private AllocationService allocationService;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Professor professor;
 
     @BeforeEach
@@ -384,4 +389,57 @@ class ProjectServiceIntegrationTest {
         assertTrue(found.isPresent());
         assertEquals(3, found.get().getProgramRestrictions().size());
     }
+
+    @Test
+    void isProgramAllowed_usesEligibilityIndex() {
+        Project project = projectService.addProject("Indexed Project", "Desc",
+                Set.of(Program.SOFTWARE_ENGINEERING, Program.CIVIL_ENGINEERING), 2, professor.getId());
+
+        assertTrue(projectService.isProgramAllowed(project.getId(), Program.SOFTWARE_ENGINEERING));
+        assertTrue(projectService.isProgramAllowed(project.getId(), Program.CIVIL_ENGINEERING));
+        assertFalse(projectService.isProgramAllowed(project.getId(), Program.ELECTRICAL_ENGINEERING));
+        assertFalse(projectService.isProgramAllowed(project.getId(), null));
+    }
+
+    @Test
+    void findProgramMasks_leavesRestrictionsUnloaded() {
+        Project project = projectService.addProject("Masked Project", "Desc",
+                Set.of(Program.SOFTWARE_ENGINEERING, Program.CIVIL_ENGINEERING), 2, professor.getId());
+        projectService.findProjectIdsAllowing(Program.SOFTWARE_ENGINEERING);
+        entityManager.clear();
+
+        Project loaded = projectService.findProjectsByIds(Set.of(project.getId())).get(0);
+        int mask = projectService.findProgramMasks(List.of(project.getId())).get(project.getId());
+
+        assertEquals(Program.SOFTWARE_ENGINEERING.bit() | Program.CIVIL_ENGINEERING.bit(), mask);
+        assertFalse(Hibernate.isInitialized(loaded.getProgramRestrictions()));
+    }
+
+    @Test
+    void findProjectIdsAllowing_followsUpdatesAndDeletes() {
+        Project project = projectService.addProject("Changing Project", "Desc",
+                new HashSet<>(Set.of(Program.SOFTWARE_ENGINEERING)), 2, professor.getId());
+        assertTrue(projectService.findProjectIdsAllowing(Program.SOFTWARE_ENGINEERING).contains(project.getId()));
+
+        project.setProgramRestrictions(new HashSet<>(Set.of(Program.ELECTRICAL_ENGINEERING)));
+        projectService.updateProject(project, professor.getId(), false);
+        assertFalse(projectService.findProjectIdsAllowing(Program.SOFTWARE_ENGINEERING).contains(project.getId()));
+        assertTrue(projectService.findProjectIdsAllowing(Program.ELECTRICAL_ENGINEERING).contains(project.getId()));
+
+        projectService.deleteProject(project.getId(), professor.getId(), false);
+        assertFalse(projectService.findProjectIdsAllowing(Program.ELECTRICAL_ENGINEERING).contains(project.getId()));
+    }
+
+    @Test
+    void findProjects_byProgram_excludesOtherPrograms() {
+        Project se = projectService.addProject("SE Only", "Desc", Set.of(Program.SOFTWARE_ENGINEERING), 2, professor.getId());
+        Project ee = projectService.addProject("EE Only", "Desc", Set.of(Program.ELECTRICAL_ENGINEERING), 2, professor.getId());
+
+        Page<Project> page = projectService.findProjects("ELECTRICAL_ENGINEERING", null, PageRequest.of(0, 50));
+
+        List<Long> ids = page.getContent().stream().map(Project::getId).toList();
+        assertTrue(ids.contains(ee.getId()));
+        assertFalse(ids.contains(se.getId()));
+        assertEquals(page.getContent().size(), page.getTotalElements());
+    }
 }
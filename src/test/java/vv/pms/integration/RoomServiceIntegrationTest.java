@@ -32,7 +32,7 @@ class RoomServiceIntegrationTest {
     void createRoom_defaultAvailability() {
         Room room = roomService.createRoom("Availability Test Room");
         
-        Boolean[][] availability = room.getAvailability();
+        Boolean[][] availability = room.getAvailability().toMatrix();
         assertEquals(5, availability.length); // 5 days
         assertEquals(16, availability[0].length); // 16 bins (30-min slots)
         
@@ -193,12 +193,12 @@ class RoomServiceIntegrationTest {
     @Test
     void updateRoom_preservesAvailability() {
         Room room = roomService.createRoom("Preserve Availability Room");
-        Boolean[][] originalAvailability = room.getAvailability();
+        Boolean[][] originalAvailability = room.getAvailability().toMatrix();
         
         Room updated = roomService.updateRoom(room.getId(), "New Name");
         
         // Availability should be preserved after name change
-        Boolean[][] updatedAvailability = updated.getAvailability();
+        Boolean[][] updatedAvailability = updated.getAvailability().toMatrix();
         assertEquals(originalAvailability.length, updatedAvailability.length);
         assertEquals(originalAvailability[0].length, updatedAvailability[0].length);
     }
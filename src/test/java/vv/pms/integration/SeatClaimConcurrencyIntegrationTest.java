@@ -0,0 +1,168 @@
+package vv.pms.integration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import vv.pms.allocation.AllocationPlan;
+import vv.pms.allocation.AllocationService;
+import vv.pms.professor.Professor;
+import vv.pms.professor.ProfessorService;
+import vv.pms.project.Program;
+import vv.pms.project.Project;
+import vv.pms.project.ProjectService;
+import vv.pms.student.Student;
+import vv.pms.student.StudentService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Apply-rush benchmark: 500 students claim seats on a handful of projects at once. The
+ * throughput is published as a report entry; only the outcome is asserted. Not @Transactional, since every claim has to commit for the contention to be real;
+ * the context is thrown away afterwards so the committed rows do not leak into other tests.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class SeatClaimConcurrencyIntegrationTest {
+
+    private static final int CLIENTS = 500;
+    private static final int PROJECTS = 5;
+    private static final int SEATS_PER_PROJECT = 20;
+
+    @Autowired
+    private AllocationService allocationService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Test
+    void applyRush_neverOverbooks(TestReporter reporter) throws Exception {
+        Professor professor = professorService.addProfessor("Prof. Rush", "prof.rush@university.edu");
+        List<Project> projects = new ArrayList<>();
+        for (int p = 0; p < PROJECTS; p++) {
+            projects.add(projectService.addProject("Rush " + p, "Popular", Set.of(Program.SOFTWARE_ENGINEERING),
+                    SEATS_PER_PROJECT, professor.getId()));
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            students.add(studentService.addStudent("Rush " + i, "R" + i, "rush" + i + "@test.com", Program.SOFTWARE_ENGINEERING));
+        }
+
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        List<Throwable> unexpected = java.util.Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(64);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            Long projectId = projects.get(i % PROJECTS).getId();
+            Long studentId = students.get(i).getId();
+            results.add(clients.submit(() -> {
+                start.await();
+                try {
+                    allocationService.assignStudentToProject(projectId, studentId);
+                    claimed.incrementAndGet();
+                } catch (AllocationService.AllocationStateException e) {
+                    if (e.getMessage().contains("already full")) full.incrementAndGet();
+                    else unexpected.add(e);
+                } catch (RuntimeException e) {
+                    unexpected.add(e);
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) result.get(60, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+        clients.shutdown();
+
+        reporter.publishEntry("applyRush", String.format("%d claims in %d ms (%.0f claims/s)",
+                CLIENTS, elapsedMs, CLIENTS * 1000.0 / Math.max(1, elapsedMs)));
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(PROJECTS * SEATS_PER_PROJECT, claimed.get());
+        assertEquals(CLIENTS - PROJECTS * SEATS_PER_PROJECT, full.get());
+        // Every seat is filled, and no student holds more than one
+        Set<Long> seated = new HashSet<>();
+        for (Project project : projects) {
+            List<Long> members = allocationService.findStudentsByProjectId(project.getId());
+            assertEquals(SEATS_PER_PROJECT, members.size());
+            members.forEach(sid -> assertTrue(seated.add(sid), () -> "Student " + sid + " holds two seats"));
+        }
+        assertEquals(CLIENTS - PROJECTS * SEATS_PER_PROJECT, studentService.findStudentsWithoutProject().size());
+    }
+
+    @Test
+    void bulkAndSingleClaimsRace_reportFailuresInsteadOfThrowing() throws Exception {
+        Professor professor = professorService.addProfessor("Prof. Bulk", "prof.bulk@university.edu");
+        Project left = projectService.addProject("Bulk L", "Popular", Set.of(Program.SOFTWARE_ENGINEERING), 4, professor.getId());
+        Project right = projectService.addProject("Bulk R", "Popular", Set.of(Program.SOFTWARE_ENGINEERING), 4, professor.getId());
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            students.add(studentService.addStudent("Bulk " + i, "B" + i, "bulk" + i + "@test.com", Program.SOFTWARE_ENGINEERING));
+        }
+
+        List<Throwable> unexpected = java.util.Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i += 2) {
+            List<AllocationPlan.Placement> pairs = List.of(
+                    new AllocationPlan.Placement(students.get(i).getId(), left.getId()),
+                    new AllocationPlan.Placement(students.get(i + 1).getId(), right.getId()));
+            results.add(clients.submit(() -> {
+                start.await();
+                try {
+                    // Full projects or lost version checks come back as failures, not exceptions
+                    allocationService.assignStudentsInBulk(pairs);
+                } catch (RuntimeException e) {
+                    unexpected.add(e);
+                }
+                return null;
+            }));
+        }
+        for (int i = 20; i < 40; i++) {
+            Long projectId = (i % 2 == 0 ? left : right).getId();
+            Long studentId = students.get(i).getId();
+            results.add(clients.submit(() -> {
+                start.await();
+                try {
+                    allocationService.assignStudentToProject(projectId, studentId);
+                } catch (AllocationService.AllocationStateException e) {
+                    // full or busy: reported to the applicant, not a server error
+                } catch (RuntimeException e) {
+                    unexpected.add(e);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> result : results) result.get(60, TimeUnit.SECONDS);
+        clients.shutdown();
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(4, allocationService.findStudentsByProjectId(left.getId()).size());
+        assertEquals(4, allocationService.findStudentsByProjectId(right.getId()).size());
+    }
+}
@@ -136,6 +136,29 @@ class StudentServiceIntegrationTest {
         assertFalse(updated.get().isHasProject());
     }
 
+    @Test
+    void updateProjectStatuses_bulk() {
+        Student first = studentService.addStudent("Bulk One", "BULK001", "bulk1@university.edu", Program.SOFTWARE_ENGINEERING);
+        Student second = studentService.addStudent("Bulk Two", "BULK002", "bulk2@university.edu", Program.SOFTWARE_ENGINEERING);
+        Student untouched = studentService.addStudent("Bulk Three", "BULK003", "bulk3@university.edu", Program.SOFTWARE_ENGINEERING);
+
+        studentService.updateProjectStatuses(Set.of(first.getId(), second.getId()), true);
+
+        assertTrue(studentService.findStudentById(first.getId()).orElseThrow().isHasProject());
+        assertTrue(studentService.findStudentById(second.getId()).orElseThrow().isHasProject());
+        assertFalse(studentService.findStudentById(untouched.getId()).orElseThrow().isHasProject());
+
+        studentService.updateProjectStatuses(Set.of(first.getId()), false);
+
+        assertFalse(studentService.findStudentById(first.getId()).orElseThrow().isHasProject());
+        assertTrue(studentService.findStudentById(second.getId()).orElseThrow().isHasProject());
+    }
+
+    @Test
+    void updateProjectStatuses_emptySet_noop() {
+        assertDoesNotThrow(() -> studentService.updateProjectStatuses(Set.of(), true));
+    }
+
     @Test
     void updateProjectStatus_notFound_throws() {
         assertThrows(StudentService.StudentNotFoundException.class, () ->
@@ -0,0 +1,49 @@
+package vv.pms.presentation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import vv.pms.allocation.AllocationService;
+import vv.pms.allocation.ProjectAllocation;
+import vv.pms.availability.SchedulingCalendar;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresentationServiceTest {
+
+    @Mock
+    private AllocationService allocationService;
+
+    @Test
+    void durationsInMinutesKeepTheirLengthWithSmallerBins() {
+        ProjectAllocation pair = new ProjectAllocation(1L, 10L);
+        pair.assignStudent(100L);
+        pair.assignStudent(101L);
+        when(allocationService.findAllocationByProjectId(1L)).thenReturn(Optional.of(pair));
+
+        assertEquals(2, service(calendar(30), 30, 60, 90).durationBinsFor(1L));
+        assertEquals(4, service(calendar(15), 30, 60, 90).durationBinsFor(1L));
+    }
+
+    @Test
+    void durationThatIsNotAWholeNumberOfBinsFailsAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> service(calendar(30), 30, 45));
+        assertThrows(IllegalArgumentException.class, () -> service(calendar(30), 0));
+        assertThrows(IllegalArgumentException.class, () -> service(calendar(30), 510));
+        assertThrows(IllegalArgumentException.class, () -> service(calendar(30)));
+    }
+
+    private static SchedulingCalendar calendar(int binMinutes) {
+        return new SchedulingCalendar("", "", "08:00", "16:00", binMinutes);
+    }
+
+    private PresentationService service(SchedulingCalendar calendar, int... durationMinutes) {
+        return new PresentationService(null, null, null, allocationService, null, null, null, null, null, null, null,
+                calendar, 2000, durationMinutes);
+    }
+}
@@ -0,0 +1,62 @@
+package vv.pms.presentation.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayMasksTest {
+
+    @Test
+    void rangeCoversRequestedBins() {
+        assertEquals(0b1110L, DayMasks.range(1, 3));
+        assertEquals(0L, DayMasks.range(4, 0));
+        assertEquals(-1L, DayMasks.range(0, 64));
+    }
+
+    @Test
+    void andAndClearCombineDayByDay() {
+        long[] free = { 0b1111L, 0b0011L };
+        DayMasks.and(free, new long[] { 0b0111L, 0b0001L });
+        assertArrayEquals(new long[] { 0b0111L, 0b0001L }, free);
+
+        long[] occupied = new long[2];
+        DayMasks.mark(occupied, 0, 1, 1);
+        DayMasks.clear(free, occupied);
+        assertArrayEquals(new long[] { 0b0101L, 0b0001L }, free);
+    }
+
+    @Test
+    void overlapsDetectsSharedBins() {
+        long[] occupied = new long[1];
+        DayMasks.mark(occupied, 0, 4, 2);
+
+        assertTrue(DayMasks.overlaps(occupied, 0, 5, 3));
+        assertFalse(DayMasks.overlaps(occupied, 0, 6, 2));
+        assertFalse(DayMasks.overlaps(occupied, 0, 0, 4));
+    }
+
+    @Test
+    void windowStartsRequireConsecutiveFreeBins() {
+        long free = 0b0111_0110L;
+
+        assertEquals(free, DayMasks.windowStarts(free, 1));
+        assertEquals(0b0011_0010L, DayMasks.windowStarts(free, 2));
+        assertEquals(0b0001_0000L, DayMasks.windowStarts(free, 3));
+        assertEquals(0L, DayMasks.windowStarts(free, 4));
+    }
+
+    @Test
+    void windowStartsMatchesBinByBinScanForLongWindows() {
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < 500; i++) {
+            long free = random.nextLong() | random.nextLong();
+            for (int duration = 1; duration <= 20; duration++) {
+                long expected = 0;
+                for (int t = 0; t + duration <= 64; t++) {
+                    if ((free & DayMasks.range(t, duration)) == DayMasks.range(t, duration)) expected |= 1L << t;
+                }
+                assertEquals(expected, DayMasks.windowStarts(free, duration), "duration " + duration);
+            }
+        }
+    }
+}
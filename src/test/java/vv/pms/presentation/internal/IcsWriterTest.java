@@ -0,0 +1,49 @@
+package vv.pms.presentation.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IcsWriterTest {
+
+    @Test
+    void escapesTextValues() {
+        assertEquals("a\\, b\\; c\\\\d\\ne", IcsWriter.escape("a, b; c\\d\ne"));
+    }
+
+    @Test
+    void writesEventWithCrlfLines() throws Exception {
+        StringWriter out = new StringWriter();
+        IcsWriter ics = new IcsWriter(out);
+        ics.beginCalendar("Test");
+        ics.event("presentation-1@pms", Instant.parse("2026-01-05T12:00:00Z"),
+                LocalDateTime.of(2026, 1, 5, 8, 0), LocalDateTime.of(2026, 1, 5, 9, 0),
+                "Demo", "Room 1", null, true);
+        ics.endCalendar();
+
+        String text = out.toString();
+        assertTrue(text.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(text.contains("\r\nDTSTAMP:20260105T120000Z\r\n"));
+        assertTrue(text.contains("\r\nDTSTART:20260105T080000\r\nDTEND:20260105T090000\r\nRRULE:FREQ=WEEKLY\r\n"));
+        assertTrue(text.contains("\r\nLOCATION:Room 1\r\n"));
+        assertFalse(text.contains("DESCRIPTION"));
+        assertTrue(text.endsWith("END:VCALENDAR\r\n"));
+    }
+
+    @Test
+    void foldsLongLinesAtSeventyFiveOctets() throws Exception {
+        StringWriter out = new StringWriter();
+        new IcsWriter(out).beginCalendar("é".repeat(60));
+
+        for (String line : out.toString().split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        String unfolded = out.toString().replace("\r\n ", "");
+        assertTrue(unfolded.contains("X-WR-CALNAME:" + "é".repeat(60) + "\r\n"));
+    }
+}
@@ -0,0 +1,104 @@
+package vv.pms.presentation.internal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vv.pms.allocation.ProjectAllocation;
+import vv.pms.presentation.PresentationSlot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonOccupancyIndexTest {
+
+    private PersonOccupancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProjectAllocation first = new ProjectAllocation(1L, 100L);
+        first.assignStudent(200L);
+        ProjectAllocation second = new ProjectAllocation(2L, 100L);
+        second.assignStudent(201L);
+
+        index = new PersonOccupancyIndex();
+        index.ensureLoaded(
+                () -> List.of(RoomOccupancyIndex.Booking.of(new PresentationSlot(1L, 10L, 0, 2, 2)),
+                        RoomOccupancyIndex.Booking.of(new PresentationSlot(2L, 11L, 1, 0, 1))),
+                () -> List.of(first, second));
+    }
+
+    @Test
+    void professorIsBusyWithTheirOtherProjects() {
+        assertArrayEquals(new long[] { 0L, 0b1L, 0L }, index.busy(1L, 100L, List.of(), 3));
+        assertArrayEquals(new long[] { 0b1100L, 0L, 0L }, index.busy(2L, 100L, List.of(), 3));
+        assertArrayEquals(new long[] { 0b1100L, 0b1L }, index.busy(3L, 100L, List.of(), 2));
+    }
+
+    @Test
+    void studentsAddTheirOwnBookings() {
+        assertArrayEquals(new long[] { 0b1100L, 0L }, index.busy(3L, null, List.of(200L, 202L), 2));
+        assertArrayEquals(new long[2], index.busy(1L, null, List.of(200L), 2));
+    }
+
+    @Test
+    void movingAndReleasingABookingUpdatesItsTeam() {
+        index.book(new PresentationSlot(1L, 10L, 1, 4, 1));
+        assertArrayEquals(new long[] { 0L, 0b10000L }, index.busy(3L, null, List.of(200L), 2));
+
+        index.release(1L);
+        assertArrayEquals(new long[] { 0L, 0b1L }, index.busy(3L, 100L, List.of(200L), 2));
+
+        index.removeRoom(11L);
+        assertArrayEquals(new long[2], index.busy(3L, 100L, List.of(200L, 201L), 2));
+    }
+
+    @Test
+    void teamChangesMoveTheBookingBetweenPeople() {
+        index.setTeam(2L, 101L, List.of(201L, 202L));
+
+        assertArrayEquals(new long[] { 0b1100L, 0L }, index.busy(3L, 100L, List.of(), 2));
+        assertArrayEquals(new long[] { 0L, 0b1L }, index.busy(3L, 101L, List.of(), 2));
+        assertArrayEquals(new long[] { 0L, 0b1L }, index.busy(3L, null, List.of(202L), 2));
+
+        index.setTeam(2L, null, List.of());
+        assertArrayEquals(new long[2], index.busy(3L, 101L, List.of(201L, 202L), 2));
+    }
+
+    @Test
+    void transactionalWriteIsPrivateUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.setTeam(2L, 100L, List.of(201L, 203L));
+
+            assertArrayEquals(new long[] { 0L, 0b1L }, index.busy(3L, null, List.of(203L), 2));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertArrayEquals(new long[] { 0L, 0b1L }, index.busy(3L, null, List.of(203L), 2));
+    }
+
+    @Test
+    void rolledBackWriteLeavesTheIndexAsItWas() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.book(new PresentationSlot(1L, 10L, 1, 4, 1));
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertArrayEquals(new long[] { 0b1100L, 0L }, index.busy(3L, null, List.of(200L), 2));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+}
@@ -0,0 +1,156 @@
+package vv.pms.presentation.internal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vv.pms.presentation.PresentationSlot;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomOccupancyIndexTest {
+
+    private RoomOccupancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RoomOccupancyIndex();
+        index.ensureLoaded(() -> List.of(
+                new PresentationSlot(1L, 10L, 0, 2, 2),
+                new PresentationSlot(2L, 10L, 1, 0, 1)));
+    }
+
+    @Test
+    void loadedSlotsAreOccupied() {
+        assertArrayEquals(new long[] { 0b1100L, 0b1L, 0L }, index.occupied(10L, null, 3));
+        assertFalse(index.isFree(10L, 0, 3, 1, null));
+        assertTrue(index.isFree(10L, 0, 4, 1, null));
+        assertTrue(index.isFree(11L, 0, 2, 2, null));
+    }
+
+    @Test
+    void ownBookingIsIgnoredWhenAsked() {
+        assertTrue(index.isFree(10L, 0, 2, 2, 1L));
+        assertArrayEquals(new long[] { 0L, 0b1L }, index.occupied(10L, 1L, 2));
+    }
+
+    @Test
+    void bookingReplacesTheProjectsPreviousSlot() {
+        index.book(new PresentationSlot(1L, 11L, 2, 5, 1));
+
+        assertTrue(index.isFree(10L, 0, 2, 2, null));
+        assertFalse(index.isFree(11L, 2, 5, 1, null));
+        assertEquals(11L, index.bookingOf(1L).orElseThrow().roomId());
+    }
+
+    @Test
+    void releaseAndRoomRemovalFreeBins() {
+        index.release(2L);
+        assertTrue(index.isFree(10L, 1, 0, 1, null));
+
+        index.removeRoom(10L);
+        assertTrue(index.bookings().isEmpty());
+        assertArrayEquals(new long[2], index.occupied(10L, null, 2));
+    }
+
+    @Test
+    void invalidateReloadsOnNextUse() {
+        index.invalidate();
+        index.ensureLoaded(List::of);
+
+        assertTrue(index.bookings().isEmpty());
+    }
+
+    @Test
+    void writeOutsideATransactionIsPublishedAtOnce() {
+        String before = index.version();
+        index.book(new PresentationSlot(3L, 10L, 2, 0, 1));
+
+        assertNotEquals(before, index.version());
+        assertEquals(2, index.bookingOf(3L).orElseThrow().dayIndex());
+    }
+
+    @Test
+    void transactionalWriteIsPrivateUntilCommit() {
+        String before = index.version();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.book(new PresentationSlot(3L, 10L, 2, 0, 1));
+            index.release(2L);
+
+            assertFalse(index.isFree(10L, 2, 0, 1, null));
+            assertTrue(index.isFree(10L, 1, 0, 1, null));
+            assertTrue(runElsewhere(() -> index.isFree(10L, 2, 0, 1, null)));
+            assertFalse(runElsewhere(() -> index.isFree(10L, 1, 0, 1, null)));
+            assertEquals(before, index.version());
+
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(index.isFree(10L, 2, 0, 1, null));
+        assertTrue(index.isFree(10L, 1, 0, 1, null));
+        assertNotEquals(before, index.version());
+    }
+
+    @Test
+    void rolledBackWriteLeavesTheIndexAsItWas() {
+        String before = index.version();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.book(new PresentationSlot(3L, 10L, 2, 0, 1));
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.bookingOf(3L).isEmpty());
+        assertEquals(2, index.bookings().size());
+        assertEquals(before, index.version());
+    }
+
+    @Test
+    void commitRacingAFirstLoadIsNotLost() {
+        index.invalidate();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.book(new PresentationSlot(3L, 11L, 0, 0, 1));
+            // Another request loads the committed rows before this write commits
+            runElsewhere(() -> {
+                index.ensureLoaded(List::of);
+                return null;
+            });
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(index.isFree(11L, 0, 0, 1, null));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+
+    private static <T> T runElsewhere(Callable<T> work) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(work).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
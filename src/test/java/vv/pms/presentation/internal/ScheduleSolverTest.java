@@ -0,0 +1,172 @@
+package vv.pms.presentation.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleSolverTest {
+
+    private static final int DAYS = 1;
+
+    private static long[] day(long bits) {
+        return new long[] { bits };
+    }
+
+    @Test
+    void constrainedTaskIsPlacedBeforeFlexibleOne() {
+        // A greedy pass in list order would give bin 0 to "flexible" and strand "tight"
+        List<ScheduleSolver.Task> tasks = List.of(
+                new ScheduleSolver.Task(1L, 1, day(0b11), Set.of()),
+                new ScheduleSolver.Task(2L, 1, day(0b01), Set.of()));
+        List<ScheduleSolver.Venue> venues = List.of(new ScheduleSolver.Venue(10L, day(0b11)));
+
+        ScheduleSolver.Result result = new ScheduleSolver(DAYS).solve(tasks, venues, Duration.ofSeconds(1));
+
+        assertTrue(result.unscheduled().isEmpty());
+        assertTrue(result.optimal());
+        ScheduleSolver.Placement tight = result.placements().stream()
+                .filter(p -> p.taskId().equals(2L)).findFirst().orElseThrow();
+        assertEquals(0, tight.startBinIndex());
+    }
+
+    @Test
+    void placementsNeverOverlapInARoom() {
+        List<ScheduleSolver.Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 6; id++) {
+            tasks.add(new ScheduleSolver.Task(id, 2, day(0xFFL), Set.of()));
+        }
+        List<ScheduleSolver.Venue> venues = List.of(new ScheduleSolver.Venue(10L, day(0xFFL)));
+
+        ScheduleSolver.Result result = new ScheduleSolver(DAYS).solve(tasks, venues, Duration.ofSeconds(1));
+
+        assertEquals(4, result.placements().size());
+        assertEquals(2, result.unscheduled().size());
+        long used = 0;
+        for (ScheduleSolver.Placement p : result.placements()) {
+            long bins = DayMasks.range(p.startBinIndex(), p.durationBins());
+            assertEquals(0, used & bins);
+            used |= bins;
+        }
+    }
+
+    @Test
+    void tasksSharingAPersonNeverOverlapAcrossRooms() {
+        List<ScheduleSolver.Task> tasks = List.of(
+                new ScheduleSolver.Task(1L, 1, day(0b11), Set.of("PROFESSOR:7")),
+                new ScheduleSolver.Task(2L, 1, day(0b11), Set.of("PROFESSOR:7", "STUDENT:3")),
+                new ScheduleSolver.Task(3L, 1, day(0b11), Set.of("PROFESSOR:7")));
+        List<ScheduleSolver.Venue> venues = List.of(
+                new ScheduleSolver.Venue(10L, day(0b11)),
+                new ScheduleSolver.Venue(11L, day(0b11)));
+
+        ScheduleSolver.Result result = new ScheduleSolver(DAYS).solve(tasks, venues, Duration.ofSeconds(1));
+
+        // Two rooms would fit all three, but the professor can only attend two bins
+        assertEquals(2, result.placements().size());
+        assertNotEquals(result.placements().get(0).startBinIndex(), result.placements().get(1).startBinIndex());
+    }
+
+    @Test
+    void anchoredTaskMovesAsLittleAsPossible() {
+        List<ScheduleSolver.Task> tasks = List.of(new ScheduleSolver.Task(1L, 1, new long[] { 0b1010_0001L, 0b1L },
+                Set.of(), new ScheduleSolver.Anchor(11L, 0, 6)));
+        List<ScheduleSolver.Venue> venues = List.of(
+                new ScheduleSolver.Venue(10L, new long[] { 0xFFL, 0xFFL }),
+                new ScheduleSolver.Venue(11L, new long[] { 0b0010_0001L, 0xFFL }));
+
+        ScheduleSolver.Result result = new ScheduleSolver(2).solve(tasks, venues, Duration.ofSeconds(1));
+
+        ScheduleSolver.Placement placement = result.placements().get(0);
+        assertEquals(0, placement.dayIndex());
+        assertEquals(5, placement.startBinIndex());
+        assertEquals(11L, placement.venueId());
+    }
+
+    @Test
+    void heavierAnchoredNeighbourShiftsRatherThanDroppingTheOtherTask() {
+        List<ScheduleSolver.Task> tasks = List.of(
+                new ScheduleSolver.Task(1L, 2, day(0b0110), Set.of(), new ScheduleSolver.Anchor(10L, 0, 0)),
+                new ScheduleSolver.Task(2L, 1, day(0b1111), Set.of(), new ScheduleSolver.Anchor(10L, 0, 1, 4)));
+        List<ScheduleSolver.Venue> venues = List.of(new ScheduleSolver.Venue(10L, day(0b1111)));
+
+        ScheduleSolver.Result result = new ScheduleSolver(DAYS).solve(tasks, venues, Duration.ofSeconds(1));
+
+        // Task 1 only fits over the neighbour's bin; the neighbour moves one bin instead of task 1 being dropped
+        assertTrue(result.unscheduled().isEmpty());
+        Map<Long, ScheduleSolver.Placement> byTask = result.placements().stream()
+                .collect(Collectors.toMap(ScheduleSolver.Placement::taskId, p -> p));
+        assertEquals(1, byTask.get(1L).startBinIndex());
+        assertEquals(0, byTask.get(2L).dayIndex());
+        assertEquals(0, byTask.get(2L).startBinIndex());
+    }
+
+    @Test
+    void lighterAnchoredTaskIsTheOneThatMoves() {
+        List<ScheduleSolver.Task> tasks = List.of(
+                new ScheduleSolver.Task(1L, 1, day(0b111), Set.of(), new ScheduleSolver.Anchor(10L, 0, 1, 4)),
+                new ScheduleSolver.Task(2L, 1, day(0b111), Set.of(), new ScheduleSolver.Anchor(10L, 0, 1)));
+        List<ScheduleSolver.Venue> venues = List.of(new ScheduleSolver.Venue(10L, day(0b111)));
+
+        ScheduleSolver.Result result = new ScheduleSolver(DAYS).solve(tasks, venues, Duration.ofSeconds(1));
+
+        Map<Long, ScheduleSolver.Placement> byTask = result.placements().stream()
+                .collect(Collectors.toMap(ScheduleSolver.Placement::taskId, p -> p));
+        assertEquals(1, byTask.get(1L).startBinIndex());
+        assertEquals(0, byTask.get(2L).dayIndex());
+        assertNotEquals(1, byTask.get(2L).startBinIndex());
+    }
+
+    @Test
+    void tasksWithoutCommonTimeStayUnscheduled() {
+        List<ScheduleSolver.Task> tasks = List.of(new ScheduleSolver.Task(1L, 1, day(0b100), Set.of()));
+        List<ScheduleSolver.Venue> venues = List.of(new ScheduleSolver.Venue(10L, day(0b011)));
+
+        ScheduleSolver.Result result = new ScheduleSolver(DAYS).solve(tasks, venues, Duration.ofSeconds(1));
+
+        assertTrue(result.placements().isEmpty());
+        assertEquals(List.of(1L), result.unscheduled());
+    }
+
+    @Test
+    void exhaustedBudgetStillReturnsACompleteSchedule() {
+        List<ScheduleSolver.Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            tasks.add(new ScheduleSolver.Task(id, 1 + (int) (id % 3), new long[] { 0xFFFFL, 0xFF00L, 0x00FFL, 0xFFFFL, 0x0F0FL },
+                    Set.of("PROFESSOR:" + id % 20)));
+        }
+        List<ScheduleSolver.Venue> venues = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            venues.add(new ScheduleSolver.Venue(id, new long[] { 0xFFFFL, 0xFFFFL, 0xFFFFL, 0xFFFFL, 0xFFFFL }));
+        }
+
+        ScheduleSolver.Result result = new ScheduleSolver(5).solve(tasks, venues, Duration.ZERO);
+
+        assertEquals(300, result.placements().size() + result.unscheduled().size());
+        assertFalse(result.placements().isEmpty());
+
+        // Incomplete search must still respect rooms, people and each task's own free bins
+        java.util.Map<Long, ScheduleSolver.Task> byId = new java.util.HashMap<>();
+        tasks.forEach(t -> byId.put(t.id(), t));
+        java.util.Map<String, long[]> usedByRoomOrPerson = new java.util.HashMap<>();
+        for (ScheduleSolver.Placement p : result.placements()) {
+            ScheduleSolver.Task task = byId.get(p.taskId());
+            long bins = DayMasks.range(p.startBinIndex(), p.durationBins());
+            assertEquals(task.duration(), p.durationBins());
+            assertEquals(bins, task.free()[p.dayIndex()] & bins, "task " + p.taskId() + " placed outside its free bins");
+            List<String> owners = new ArrayList<>(task.people());
+            owners.add("ROOM:" + p.venueId());
+            for (String owner : owners) {
+                long[] used = usedByRoomOrPerson.computeIfAbsent(owner, k -> new long[5]);
+                assertEquals(0, used[p.dayIndex()] & bins, owner + " is double-booked on day " + p.dayIndex());
+                used[p.dayIndex()] |= bins;
+            }
+        }
+    }
+}